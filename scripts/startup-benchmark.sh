@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+# Açılış süresi karşılaştırması.
+#
+# Her mod için uygulamayı RUNS kez başlatır ve medyanı raporlar:
+#   ready      : başlatmadan HTTP portunun ilk yanıtına kadar geçen süre
+#   first-req  : başlatmadan GET /api/v1/products isteğinin ilk 200 yanıtına kadar geçen süre
+#   started    : Spring'in "Started ... in X seconds" logundaki süre
+#
+# Kullanım:
+#   mvn -Paot-cds package            # jar, açılmış jar, application.jsa ve application-aot.jsa üretir
+#   scripts/startup-benchmark.sh     # PostgreSQL application-prod ayarlarıyla erişilebilir olmalı
+#
+# Ortam değişkenleri: RUNS (3), PORT (8080), PROFILE (prod), APP_ARGS (ek uygulama argümanları)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-3}
+PORT=${PORT:-8080}
+PROFILE=${PROFILE:-prod}
+APP_ARGS=${APP_ARGS:-}
+JAR=$(ls target/e-commerce-*.jar | grep -v '\.original$' | head -1)
+APP_DIR=target/app
+APP_JAR=$(basename "$JAR")
+LOG=$(mktemp)
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else print v[int((NR + 1) / 2)] }'
+}
+
+# run_once <çalışma dizini> <java argümanları...>
+# AppCDS arşivi sınıf yolunu birebir kaydettiğinden açılmış jar, eğitim çalıştırmasıyla
+# aynı dizinden ve aynı göreli yolla başlatılır.
+run_once() {
+    local dir=$1 start ready="" first="" code pid
+    shift
+    start=$(now_ms)
+    (cd "$dir" && exec java "$@" --server.port="$PORT" --spring.profiles.active="$PROFILE" $APP_ARGS) > "$LOG" 2>&1 &
+    pid=$!
+
+    for _ in $(seq 1 1200); do
+        code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/api/v1/products" || true)
+        if [[ -z "$ready" && "$code" != "000" ]]; then
+            ready=$(( $(now_ms) - start ))
+        fi
+        if [[ "$code" == "200" ]]; then
+            first=$(( $(now_ms) - start ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Uygulama başlatılamadı, log: $LOG" >&2
+            tail -20 "$LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+
+    local started
+    started=$(grep -o 'Started ECommerceApplication in [0-9.]*' "$LOG" | awk '{ printf "%d", $4 * 1000 }' || true)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ready ${first:-0} ${started:-0}"
+}
+
+benchmark() {
+    local mode=$1
+    shift
+    local results=()
+    for _ in $(seq 1 "$RUNS"); do
+        results+=("$(run_once "$@")")
+    done
+    printf '%-12s %10s %12s %10s\n' "$mode" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $3 }' | median)"
+}
+
+printf '%-12s %10s %12s %10s\n' "mode" "ready(ms)" "first-req(ms)" "started(ms)"
+benchmark "jar" . -jar "$JAR"
+
+if [[ -f "$APP_DIR/$APP_JAR" ]]; then
+    benchmark "extracted" "$APP_DIR" -jar "$APP_JAR"
+fi
+if [[ -f "$APP_DIR/application.jsa" ]]; then
+    benchmark "cds" "$APP_DIR" -XX:SharedArchiveFile=application.jsa -jar "$APP_JAR"
+    # AOT açıkken yüklenen sınıflar farklıdır; kendi eğitim çalıştırmasının arşivi kullanılır
+    if [[ -f "$APP_DIR/application-aot.jsa" ]]; then
+        benchmark "aot+cds" "$APP_DIR" -XX:SharedArchiveFile=application-aot.jsa -Dspring.aot.enabled=true -jar "$APP_JAR"
+    fi
+else
+    echo "AppCDS arşivi yok; 'mvn -Paot-cds package' ile üretin." >&2
+fi
+
+rm -f "$LOG"
@@ -1,28 +1,45 @@
 package com.ardagonca.e_commerce.config;
 
+import com.ardagonca.e_commerce.event.UserChangedEvent;
+import com.ardagonca.e_commerce.model.User;
 import com.ardagonca.e_commerce.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.ardagonca.e_commerce.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
 
 @Configuration
-@RequiredArgsConstructor
 public class ApplicationConfig {
 
     private final UserRepository repository;
+    // Her kimliği doğrulanmış istekte aranır; aynı kullanıcının paralel istekleri tek sorgu yapar
+    private final SingleFlight<String, Optional<User>> userLookups;
+
+    public ApplicationConfig(UserRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.userLookups = new SingleFlight<>("user", meterRegistry);
+    }
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> repository.findByEmail(username)
+        return username -> userLookups.load(username, () -> repository.findByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userLookups.forget(event.getPreviousEmail());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.ardagonca.e_commerce.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Metodu (ya da sınıfın tüm public metotlarını) adı verilen iş yükü
+ * bölmesinde çalıştırır. Bölme doluysa çağrı beklemeden reddedilir.
+ *
+ * @see BulkheadAspect
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /** Bölme adı; ayarlar {@code app.bulkhead.<ad>.*} altından okunur. */
+    String value();
+}
@@ -0,0 +1,109 @@
+package com.ardagonca.e_commerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Bulkhead} ile işaretli servis çağrılarını iş yükü başına bir semafor
+ * ile sınırlar. Böylece örneğin yoğun katalog okumaları bağlantı havuzunu ve
+ * Tomcat iş parçacıklarını tüketip sepet işlemlerini bekletemez.
+ * <p>
+ * {@code @Transactional}'dan önce çalışır: izin alınamayan çağrı veritabanı
+ * bağlantısı almadan reddedilir. Aynı bölmeye iç içe çağrılar ikinci bir izin
+ * almaz. Metrikler: {@code bulkhead.active}, {@code bulkhead.max},
+ * {@code bulkhead.rejected} ({@code name} etiketi ile).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class BulkheadAspect {
+
+    private static final ThreadLocal<Set<String>> HELD = ThreadLocal.withInitial(HashSet::new);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public BulkheadAspect(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(com.ardagonca.e_commerce.config.Bulkhead) || @annotation(com.ardagonca.e_commerce.config.Bulkhead)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = resolveName(joinPoint);
+        Set<String> held = HELD.get();
+        if (name == null || held.contains(name)) {
+            return joinPoint.proceed();
+        }
+
+        Compartment compartment = compartments.computeIfAbsent(name, this::create);
+        if (!compartment.semaphore.tryAcquire(compartment.maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            compartment.rejected.increment();
+            log.warn("Bölme dolu, çağrı reddedildi: {} ({})", name, joinPoint.getSignature().toShortString());
+            throw new BulkheadFullException(name);
+        }
+        held.add(name);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            held.remove(name);
+            compartment.semaphore.release();
+        }
+    }
+
+    private String resolveName(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Bulkhead.class);
+        }
+        return bulkhead != null ? bulkhead.value() : null;
+    }
+
+    private Compartment create(String name) {
+        String prefix = "app.bulkhead." + name + ".";
+        int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class,
+                environment.getProperty("app.bulkhead.default.max-concurrent", Integer.class, 20));
+        Duration maxWait = environment.getProperty(prefix + "max-wait", Duration.class,
+                environment.getProperty("app.bulkhead.default.max-wait", Duration.class, Duration.ZERO));
+
+        Semaphore semaphore = new Semaphore(maxConcurrent);
+        Gauge.builder("bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                .tag("name", name)
+                .description("Bölmede çalışan çağrı sayısı")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.max", () -> maxConcurrent)
+                .tag("name", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("bulkhead.rejected")
+                .tag("name", name)
+                .description("Bölme dolu olduğu için reddedilen çağrılar")
+                .register(meterRegistry);
+        log.info("Bölme oluşturuldu: {} (eşzamanlı: {}, bekleme: {})", name, maxConcurrent, maxWait);
+        return new Compartment(semaphore, maxWait, rejected);
+    }
+
+    private record Compartment(Semaphore semaphore, Duration maxWait, Counter rejected) {
+    }
+}
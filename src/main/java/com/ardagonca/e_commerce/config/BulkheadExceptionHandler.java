@@ -0,0 +1,30 @@
+package com.ardagonca.e_commerce.config;
+
+import com.ardagonca.e_commerce.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Dolu bölme ve açık veritabanı devre kesicisi hatalarını 503 ve
+ * {@code Retry-After} başlığı ile döndürür.
+ */
+@RestControllerAdvice
+public class BulkheadExceptionHandler {
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFull(BulkheadFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(DatabaseUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorResponse(e.getMessage()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.ardagonca.e_commerce.config;
+
+import lombok.Getter;
+
+/**
+ * Bir iş yükü bölmesi dolu olduğunda fırlatılır; istemciye 503 döner.
+ */
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead) {
+        super("Sistem şu anda yoğun, lütfen tekrar deneyin (" + bulkhead + ")");
+        this.bulkhead = bulkhead;
+    }
+}
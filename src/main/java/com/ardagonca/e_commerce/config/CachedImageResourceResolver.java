@@ -0,0 +1,44 @@
+package com.ardagonca.e_commerce.config;
+
+import com.ardagonca.e_commerce.service.ImageCache;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@code /uploads/**} isteklerinde dosya çözümlendikten sonra içeriği
+ * {@link ImageCache} üzerinden sunar.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachedImageResourceResolver implements ResourceResolver {
+
+    private final ImageCache imageCache;
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || !resource.isFile()) {
+            return resource;
+        }
+        try {
+            Resource cached = imageCache.resolve(resource.getFile().toPath());
+            return cached != null ? cached : resource;
+        } catch (IOException e) {
+            log.warn("Resim önbelleğe alınamadı, diskten sunuluyor: {}", requestPath, e);
+            return resource;
+        }
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+}
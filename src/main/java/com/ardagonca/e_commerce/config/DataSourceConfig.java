@@ -0,0 +1,81 @@
+package com.ardagonca.e_commerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * {@code app.datasource.replica.enabled=true} olduğunda birincil ve replika
+ * havuzlarını oluşturup okuma/yazma yönlendirmesi yapan veri kaynağını kurar.
+ * Salt okunur işlemler ikinci seviye önbelleğe yazmaz ({@link ReadOnlyCacheModeJpaDialect}).
+ * Kapalıyken Spring Boot'un tek veri kaynağı kullanılır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica.lag-query}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLag);
+        monitor.checkLag();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routing =
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+        routing.afterPropertiesSet();
+        // Gerçek bağlantı, işlemin salt okunur olup olmadığı belli olduktan sonra alınır
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public TransactionManagerCustomizer<JpaTransactionManager> readOnlyCacheModeCustomizer() {
+        return transactionManager -> transactionManager.setJpaDialect(new ReadOnlyCacheModeJpaDialect());
+    }
+}
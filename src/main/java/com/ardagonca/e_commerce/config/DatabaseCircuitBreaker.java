@@ -0,0 +1,247 @@
+package com.ardagonca.e_commerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Gecikmeye dayalı veritabanı devre kesicisi.
+ * <p>
+ * Son {@code window-size} çağrının en az {@code failure-rate-threshold} yüzdesi
+ * yavaşsa ({@code slow-call-threshold} üstü) ya da altyapı hatasıyla bittiyse,
+ * veya bağlantı havuzunda bekleyen iş parçacığı sayısı {@code max-pending-connections}
+ * değerine ulaşırsa devre {@code open-duration} boyunca açılır. Bu sürede katalog
+ * son iyi anlık görüntüden sunulur, düşük öncelikli istekler geri çevrilir.
+ * Süre dolunca {@code half-open-calls} deneme çağrısına izin verilir; hepsi
+ * hızlıysa devre kapanır, biri bile yavaşsa yeniden açılır. Devre kapalı değilken
+ * katalog istekleri veritabanına hiç uğramayabildiğinden deneme çağrıları havuz
+ * denetimini yapan zamanlanmış görevden de ({@code SELECT 1}) gönderilir.
+ * <p>
+ * Metrikler: {@code db.breaker.state} (0 kapalı, 1 yarı açık, 2 açık),
+ * {@code db.breaker.opened}, {@code db.breaker.rejected}.
+ */
+@Component
+@Slf4j
+public class DatabaseCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean enabled;
+    private final long slowCallNanos;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final int maxPendingConnections;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int badCount;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final Counter opened;
+    private final Counter rejected;
+
+    public DatabaseCircuitBreaker(
+            @Value("${app.db-breaker.enabled:true}") boolean enabled,
+            @Value("${app.db-breaker.slow-call-threshold:500ms}") Duration slowCallThreshold,
+            @Value("${app.db-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.db-breaker.window-size:50}") int windowSize,
+            @Value("${app.db-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.db-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${app.db-breaker.half-open-calls:3}") int halfOpenCalls,
+            @Value("${app.db-breaker.max-pending-connections:10}") int maxPendingConnections,
+            ObjectProvider<HikariDataSource> pools,
+            ObjectProvider<JdbcTemplate> jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxPendingConnections = maxPendingConnections;
+        this.pools = pools;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outcomes = new boolean[windowSize];
+
+        Gauge.builder("db.breaker.state", this, breaker -> breaker.state.ordinal())
+                .description("Veritabanı devre kesicisi: 0 kapalı, 1 yarı açık, 2 açık")
+                .register(meterRegistry);
+        this.opened = Counter.builder("db.breaker.opened")
+                .description("Devrenin açılma sayısı")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.breaker.rejected")
+                .description("Devre açıkken reddedilen veritabanı çağrıları")
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    /** Çağrı veritabanına gidebilirse {@code true}; ardından {@link #record} çağrılmalıdır. */
+    public boolean tryAcquire() {
+        if (!enabled || state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    rejected.increment();
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesInFlight = 0;
+                probeSuccesses = 0;
+                log.info("Veritabanı devre kesicisi yarı açık, deneme çağrılarına izin veriliyor");
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= halfOpenCalls) {
+                    rejected.increment();
+                    return false;
+                }
+                probesInFlight++;
+            }
+            return true;
+        }
+    }
+
+    public void record(long durationNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        boolean bad = failed || durationNanos > slowCallNanos;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED -> {
+                    if (outcomeCount == outcomes.length) {
+                        if (outcomes[outcomeIndex]) {
+                            badCount--;
+                        }
+                    } else {
+                        outcomeCount++;
+                    }
+                    outcomes[outcomeIndex] = bad;
+                    if (bad) {
+                        badCount++;
+                    }
+                    outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+                    if (outcomeCount >= minimumCalls && badCount * 100 >= failureRateThreshold * outcomeCount) {
+                        open("son " + outcomeCount + " çağrının " + badCount + " tanesi yavaş ya da hatalı");
+                    }
+                }
+                case HALF_OPEN -> {
+                    probesInFlight = Math.max(0, probesInFlight - 1);
+                    if (bad) {
+                        open("deneme çağrısı " + durationNanos / 1_000_000 + " ms sürdü");
+                    } else if (++probeSuccesses >= halfOpenCalls) {
+                        close();
+                    }
+                }
+                case OPEN -> {
+                    // Devre açılmadan önce başlamış çağrılar
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.db-breaker.pool-check-interval-ms:1000}")
+    public void checkPoolPressure() {
+        if (!enabled) {
+            return;
+        }
+        if (state != State.CLOSED) {
+            probe();
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        int pending = 0;
+        for (HikariDataSource pool : (Iterable<HikariDataSource>) pools.orderedStream()::iterator) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null) {
+                pending += bean.getThreadsAwaitingConnection();
+            }
+        }
+        if (pending >= maxPendingConnections) {
+            synchronized (this) {
+                if (state != State.OPEN) {
+                    open("bağlantı havuzunda " + pending + " iş parçacığı bekliyor");
+                }
+            }
+        }
+    }
+
+    /** Açık kalma süresi dolduysa ya da yarı açıkta boş deneme hakkı varsa deneme sorgusu gönderir. */
+    private void probe() {
+        JdbcTemplate template = jdbcTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        for (int i = 0; i < halfOpenCalls && probeDue(); i++) {
+            if (!tryAcquire()) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                template.queryForObject("SELECT 1", Integer.class);
+            } catch (DataAccessException e) {
+                failed = true;
+            } finally {
+                record(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private synchronized boolean probeDue() {
+        return switch (state) {
+            case CLOSED -> false;
+            case OPEN -> System.nanoTime() - openedAt >= openDurationNanos;
+            case HALF_OPEN -> probesInFlight < halfOpenCalls;
+        };
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened.increment();
+        log.warn("Veritabanı devre kesicisi açıldı: {}; {} ms boyunca eski veriler sunulacak",
+                reason, openDurationNanos / 1_000_000);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        badCount = 0;
+        log.info("Veritabanı devre kesicisi kapandı");
+    }
+}
@@ -0,0 +1,42 @@
+package com.ardagonca.e_commerce.config;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code ProductRepository} çağrılarını {@link DatabaseCircuitBreaker} üzerinden
+ * geçirir: süreyi ve hatayı kaydeder, devre açıkken çağrıyı veritabanına gitmeden reddeder.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class DatabaseCircuitBreakerAspect {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    @Around("target(com.ardagonca.e_commerce.repository.ProductRepository) && execution(* *(..))")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new DatabaseUnavailableException("Ürün veritabanı şu anda yanıt vermiyor, lütfen tekrar deneyin");
+        }
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return joinPoint.proceed();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            // Kısıt ihlali gibi isteğe bağlı hatalar devreyi etkilemez
+            failed = true;
+            throw e;
+        } finally {
+            circuitBreaker.record(System.nanoTime() - start, failed);
+        }
+    }
+}
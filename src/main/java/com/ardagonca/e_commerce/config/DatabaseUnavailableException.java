@@ -0,0 +1,12 @@
+package com.ardagonca.e_commerce.config;
+
+/**
+ * Veritabanı devre kesicisi açıkken ya da düşük öncelikli istekler
+ * geri çevrilirken fırlatılır; istemciye 503 döner.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+}
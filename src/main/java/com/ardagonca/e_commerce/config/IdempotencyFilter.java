@@ -0,0 +1,178 @@
+package com.ardagonca.e_commerce.config;
+
+import com.ardagonca.e_commerce.dto.ErrorResponse;
+import com.ardagonca.e_commerce.service.GuestCartService;
+import com.ardagonca.e_commerce.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Sepet değiştiren isteklerde {@code Idempotency-Key} desteği. Aynı anahtarla
+ * gelen tekrar istekler işlenmez; ilk isteğin saklanan yanıtı döndürülür.
+ * <p>
+ * Anahtarlar istemci kapsamında tutulur (oturum açmış kullanıcı, misafir sepeti
+ * çerezi ya da istemci adresi). İlk istek sürerken gelen tekrar 409, aynı anahtarın
+ * başka bir istekte kullanılması 422 ile reddedilir. 5xx yanıtlar saklanmaz.
+ * <p>
+ * Kimlik doğrulamadan sonra çalışması için güvenlik zincirine eklenir
+ * ({@link SecurityConfig}); servlet filtresi olarak ayrıca kaydedilmez.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<String> pathPrefixes;
+
+    public IdempotencyFilter(
+            IdempotencyStore store,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.enabled:true}") boolean enabled,
+            @Value("${app.idempotency.path-prefixes:/api/v1/cart/}") List<String> pathPrefixes) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pathPrefixes = pathPrefixes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (!"POST".equals(method) && !"PUT".equals(method) && !"PATCH".equals(method) && !"DELETE".equals(method)) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return pathPrefixes.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " 1-" + MAX_KEY_LENGTH + " karakter olmalıdır");
+            return;
+        }
+
+        String key = sha256(scopeOf(request) + '\n' + idempotencyKey);
+        String fingerprint = sha256(request.getMethod() + ' ' + request.getRequestURI()
+                + '?' + (request.getQueryString() != null ? request.getQueryString() : ""));
+
+        IdempotencyStore.Entry existing = store.reserve(key, fingerprint);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Bu anahtar farklı bir istekte kullanılmış");
+            } else if (existing.response() == null) {
+                writeError(response, HttpStatus.CONFLICT, "Aynı anahtarlı istek hâlâ işleniyor");
+            } else {
+                log.debug("Tekrar istek, saklanan yanıt döndürülüyor: {} {}", request.getMethod(), request.getRequestURI());
+                replay(response, existing.response());
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status < 500) {
+                store.complete(key, new IdempotencyStore.StoredResponse(
+                        status,
+                        wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.SET_COOKIE),
+                        wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static String scopeOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (GuestCartService.COOKIE_NAME.equals(cookie.getName())) {
+                    return "guest:" + cookie.getValue();
+                }
+            }
+        }
+        // Çerezi henüz olmayan misafirin ilk isteği ve onun tekrarları
+        return "anonymous:" + request.getRemoteAddr();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.setCookie() != null) {
+            response.setHeader(HttpHeaders.SET_COOKIE, stored.setCookie());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -33,12 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        log.debug("JWT Filter processing request to: {}", request.getRequestURI());
         final String authHeader = request.getHeader("Authorization");
-        log.debug("Authorization header: {}", authHeader);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.debug("No valid Authorization header found");
             filterChain.doFilter(request, response);
             return;
         }
@@ -0,0 +1,46 @@
+package com.ardagonca.e_commerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link LowPriority} uç noktalarını, veritabanı devre kesicisi kapalı
+ * değilken işlemeden 503 ile geri çevirir. Böylece kalan kapasite katalog,
+ * sepet ve giriş isteklerine kalır. Metrik: {@code load.shed}.
+ */
+@Component
+@Slf4j
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final Counter shed;
+
+    public LoadSheddingInterceptor(DatabaseCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.shed = Counter.builder("load.shed")
+                .description("Veritabanı zorlanırken geri çevrilen düşük öncelikli istekler")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (circuitBreaker.isClosed() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        if (handlerMethod.hasMethodAnnotation(LowPriority.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(LowPriority.class)) {
+            shed.increment();
+            log.debug("Düşük öncelikli istek geri çevrildi: {} {}", request.getMethod(), request.getRequestURI());
+            throw new DatabaseUnavailableException("Sistem şu anda yoğun, lütfen daha sonra tekrar deneyin");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ardagonca.e_commerce.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Veritabanı zorlanırken (devre kesici kapalı değilken) ilk geri çevrilecek
+ * uç noktaları işaretler.
+ *
+ * @see LoadSheddingInterceptor
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LowPriority {
+}
@@ -0,0 +1,29 @@
+package com.ardagonca.e_commerce.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Salt okunur işlemlerin oturumunu {@link CacheMode#GET} ile açar: ikinci seviye
+ * önbellekten okur ama ona yazmaz. Bu işlemler replikaya gidebildiğinden, gecikmeli
+ * replikadan okunan eski satır başka düğümün geçersizleştirdiği kaydı geri koyamaz.
+ * Önbelleği dolduran okumalar birincil veritabanına giden işlemlerde yapılır.
+ */
+public class ReadOnlyCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+        return transactionData;
+    }
+}
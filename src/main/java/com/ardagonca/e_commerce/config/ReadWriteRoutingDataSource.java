@@ -0,0 +1,61 @@
+package com.ardagonca.e_commerce.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * {@code @Transactional(readOnly = true)} işlemleri replikaya, diğerlerini
+ * birincil veritabanına yönlendirir. Replika gecikmesi sınırı aşmışsa ya da
+ * bağlantı alınamıyorsa birincil veritabanına düşer.
+ * <p>
+ * İşlemin salt okunur bayrağı bağlantı alınmadan önce belli olmalıdır; bu
+ * yüzden {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * ile sarmalanarak kullanılır.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                log.warn("Replika bağlantısı alınamadı, birincil veritabanına geçiliyor: {}", e.getMessage());
+                lagMonitor.markUnavailable();
+            }
+        }
+        return primary.getConnection();
+    }
+}
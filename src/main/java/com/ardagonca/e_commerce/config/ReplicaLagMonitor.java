@@ -0,0 +1,62 @@
+package com.ardagonca.e_commerce.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replikanın gecikmesini düzenli aralıklarla ölçer. Gecikme izin verilen
+ * sınırın üzerindeyse veya ölçüm başarısızsa okuma trafiği birincil
+ * veritabanına yönlendirilir.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+    private volatile double lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            lastLagSeconds = lag != null ? lag : 0.0;
+            boolean usable = lastLagSeconds * 1000 <= maxLag.toMillis();
+            if (usable != replicaUsable) {
+                log.info("Replika durumu değişti: {} (gecikme {} sn, sınır {} ms)",
+                        usable ? "kullanılabilir" : "devre dışı", lastLagSeconds, maxLag.toMillis());
+            }
+            replicaUsable = usable;
+        } catch (Exception e) {
+            if (replicaUsable) {
+                log.warn("Replika gecikmesi ölçülemedi, okumalar birincil veritabanına yönlendiriliyor: {}", e.getMessage());
+            }
+            markUnavailable();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    void markUnavailable() {
+        replicaUsable = false;
+    }
+}
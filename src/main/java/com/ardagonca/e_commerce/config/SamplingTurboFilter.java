@@ -0,0 +1,33 @@
+package com.ardagonca.e_commerce.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * DEBUG ve TRACE seviyesindeki kayıtları verilen olasılıkla geçirir.
+ * INFO ve üzeri seviyeler örneklemeden etkilenmez.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private double sampleRate = 1.0;
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleRate >= 1.0 || level == null || level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
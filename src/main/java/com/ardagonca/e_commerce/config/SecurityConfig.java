@@ -2,6 +2,7 @@ package com.ardagonca.e_commerce.config;
 
 import com.ardagonca.e_commerce.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,6 +16,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -30,6 +32,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final IdempotencyFilter idempotencyFilter;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
 
@@ -56,17 +59,19 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers(
                     "/api/v1/products",
+                    "/api/v1/products/stream",
+                    "/api/v1/products/search",
+                    "/api/v1/products/suggest",
+                    "/api/v1/products/*/related",
                     "/api/v1/products/images/**",
                     "/api/v1/products/image/**",
                     "/uploads/**",
                     "/api-docs/**",
                     "/swagger-ui/**"
                 ).permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/v1/cart/**").permitAll()
+                // Misafir sepetleri: kimliği olmayan istekler CartController içinde çerezle eşlenir
+                .requestMatchers("/api/v1/cart", "/api/v1/cart/**").permitAll()
                 .requestMatchers("/api/v1/products/**").hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.POST, "/api/v1/cart/**").authenticated()
-                .requestMatchers(HttpMethod.PUT, "/api/v1/cart/**").authenticated()
-                .requestMatchers(HttpMethod.DELETE, "/api/v1/cart/**").authenticated()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -76,11 +81,20 @@ public class SecurityConfig {
                 .frameOptions(frame -> frame.sameOrigin())
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
 
         return http.build();
     }
 
+    // Yalnızca güvenlik zincirinde çalışır; anahtar kapsamı için kimlik bilgisi gerekir
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration() {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(idempotencyFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -93,9 +107,10 @@ public class SecurityConfig {
             "Origin",
             "X-Requested-With",
             "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            IdempotencyFilter.HEADER
         ));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
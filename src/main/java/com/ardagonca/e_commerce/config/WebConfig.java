@@ -1,16 +1,31 @@
 package com.ardagonca.e_commerce.config;
 
+import com.ardagonca.e_commerce.service.ImageCache;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ImageCache imageCache;
+    private final LoadSheddingInterceptor loadSheddingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Spring'in kaynak önbelleği kapalı: sık istenen resimler ImageCache'te heap dışında tutulur
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:uploads/")
-                .setCachePeriod(3600);
+                .setCachePeriod(3600)
+                .resourceChain(false)
+                .addResolver(new CachedImageResourceResolver(imageCache));
     }
-} 
\ No newline at end of file
+}
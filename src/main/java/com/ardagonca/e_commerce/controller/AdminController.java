@@ -1,7 +1,13 @@
 package com.ardagonca.e_commerce.controller;
 
+import com.ardagonca.e_commerce.config.LowPriority;
+import com.ardagonca.e_commerce.dto.AdminAnalyticsResponse;
+import com.ardagonca.e_commerce.dto.ErrorResponse;
 import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.model.Promotion;
 import com.ardagonca.e_commerce.service.AdminService;
+import com.ardagonca.e_commerce.service.AnalyticsService;
+import com.ardagonca.e_commerce.service.PromotionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,8 +23,19 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AnalyticsService analyticsService;
+    private final PromotionService promotionService;
+
+    // Yetkiler rol önekisiz ("ADMIN") tutulduğundan sınıf düzeyindeki hasRole yerine bu kural geçerlidir
+    @GetMapping("/analytics")
+    @LowPriority
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<AdminAnalyticsResponse> getAnalytics() {
+        return ResponseEntity.ok(analyticsService.getAnalytics());
+    }
 
     @GetMapping("/products")
+    @LowPriority
     public ResponseEntity<List<Product>> getAllProducts() {
         return ResponseEntity.ok(adminService.getAllProducts());
     }
@@ -38,4 +55,42 @@ public class AdminController {
         adminService.deleteProduct(id);
         return ResponseEntity.ok().build();
     }
+
+    @GetMapping("/promotions")
+    @LowPriority
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<Promotion>> getAllPromotions() {
+        return ResponseEntity.ok(promotionService.getAllPromotions());
+    }
+
+    @PostMapping("/promotions")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> createPromotion(@RequestBody Promotion promotion) {
+        try {
+            return ResponseEntity.ok(promotionService.createPromotion(promotion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/promotions/{id}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> updatePromotion(@PathVariable Long id, @RequestBody Promotion promotion) {
+        try {
+            return ResponseEntity.ok(promotionService.updatePromotion(id, promotion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/promotions/{id}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> deletePromotion(@PathVariable Long id) {
+        try {
+            promotionService.deletePromotion(id);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.ardagonca.e_commerce.controller;
 
+import com.ardagonca.e_commerce.config.BulkheadFullException;
+import com.ardagonca.e_commerce.config.DatabaseUnavailableException;
 import com.ardagonca.e_commerce.dto.LoginRequest;
 import com.ardagonca.e_commerce.dto.RegisterRequest;
 import com.ardagonca.e_commerce.dto.ErrorResponse;
@@ -7,9 +9,11 @@ import com.ardagonca.e_commerce.dto.UserResponse;
 import com.ardagonca.e_commerce.model.User;
 import com.ardagonca.e_commerce.repository.UserRepository;
 import com.ardagonca.e_commerce.service.AuthService;
+import com.ardagonca.e_commerce.service.GuestCartService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
@@ -25,6 +29,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final GuestCartService guestCartService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
@@ -37,6 +42,8 @@ public class AuthController {
             log.warn("Kayıt isteği geçersiz: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (BulkheadFullException | DatabaseUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Kayıt işlemi sırasında beklenmeyen hata: {}", e.getMessage(), e);
             return ResponseEntity.badRequest()
@@ -45,16 +52,26 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(
+            @Valid @RequestBody LoginRequest request,
+            @CookieValue(name = GuestCartService.COOKIE_NAME, required = false) String guestCartToken) {
         try {
             log.debug("Giriş isteği alındı: {}", request.getEmail());
-            var response = authService.login(request);
+            var result = authService.login(request, guestCartToken);
             log.info("Kullanıcı başarıyla giriş yaptı: {}", request.getEmail());
-            return ResponseEntity.ok(response);
+            // Birleştirilemeyen misafir sepeti geri konmuştur; çerez korunur
+            if (guestCartToken != null && result.guestCartMerged()) {
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, guestCartService.clearCookie().toString())
+                        .body(result.response());
+            }
+            return ResponseEntity.ok(result.response());
         } catch (IllegalArgumentException e) {
             log.warn("Giriş isteği geçersiz: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (BulkheadFullException | DatabaseUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Giriş işlemi sırasında hata: {}", e.getMessage(), e);
             return ResponseEntity.badRequest()
@@ -69,6 +86,8 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(false);
             }
             return ResponseEntity.ok(authService.isAdmin(authentication.getName()));
+        } catch (BulkheadFullException | DatabaseUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Admin kontrolü sırasında hata: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(false);
@@ -1,13 +1,17 @@
 package com.ardagonca.e_commerce.controller;
 
+import com.ardagonca.e_commerce.config.BulkheadFullException;
+import com.ardagonca.e_commerce.config.DatabaseUnavailableException;
 import com.ardagonca.e_commerce.dto.CartResponse;
-import com.ardagonca.e_commerce.model.Cart;
 import com.ardagonca.e_commerce.model.CartItem;
 import com.ardagonca.e_commerce.model.User;
 import com.ardagonca.e_commerce.service.CartService;
+import com.ardagonca.e_commerce.service.GuestCart;
+import com.ardagonca.e_commerce.service.GuestCartService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -20,22 +24,31 @@ import java.util.ArrayList;
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class CartController {
     private final CartService cartService;
+    private final GuestCartService guestCartService;
     private static final Logger log = LoggerFactory.getLogger(CartController.class);
 
     @GetMapping
-    public ResponseEntity<CartResponse> getCart(@AuthenticationPrincipal(errorOnInvalidType = false) User user) {
+    public ResponseEntity<CartResponse> getCart(
+            @AuthenticationPrincipal(errorOnInvalidType = false) User user,
+            @CookieValue(name = GuestCartService.COOKIE_NAME, required = false) String guestCartToken) {
         log.debug("Gelen user: {}", user != null ? user.getEmail() : "null");
         try {
             if (user == null) {
-                log.debug("Anonim kullanıcı için boş sepet döndürülüyor");
-                return ResponseEntity.ok(CartResponse.builder()
-                        .totalPrice(0.0)
-                        .items(new ArrayList<>())
-                        .build());
+                log.debug("Anonim kullanıcı için misafir sepeti döndürülüyor");
+                return ResponseEntity.ok(guestCartService.find(guestCartToken)
+                        .map(guestCartService::toResponse)
+                        .orElseGet(() -> CartResponse.builder()
+                                .subtotal(0.0)
+                                .discount(0.0)
+                                .totalPrice(0.0)
+                                .items(new ArrayList<>())
+                                .build()));
             }
-            Cart cart = cartService.getCart(user);
+            CartResponse cart = cartService.getCartResponse(user);
             log.debug("Bulunan sepet: ID: {}, Ürün sayısı: {}", cart.getId(), cart.getItems().size());
-            return ResponseEntity.ok(CartResponse.fromCart(cart));
+            return ResponseEntity.ok(cart);
+        } catch (BulkheadFullException | DatabaseUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Sepet getirme hatası: ", e);
             return ResponseEntity.status(500).build();
@@ -44,26 +57,48 @@ public class CartController {
 
     @PostMapping("/add/{productId}")
     public ResponseEntity<CartItem> addToCart(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal(errorOnInvalidType = false) User user,
+            @CookieValue(name = GuestCartService.COOKIE_NAME, required = false) String guestCartToken,
             @PathVariable Long productId,
             @RequestParam(defaultValue = "1") Integer quantity) {
+        if (user == null) {
+            GuestCart guestCart = guestCartService.findOrCreate(guestCartToken);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, guestCartService.cookie(guestCart).toString())
+                    .body(guestCartService.addToCart(guestCart, productId, quantity));
+        }
         return ResponseEntity.ok(cartService.addToCart(user, productId, quantity));
     }
 
     @DeleteMapping("/remove/{productId}")
     public ResponseEntity<Void> removeFromCart(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal(errorOnInvalidType = false) User user,
+            @CookieValue(name = GuestCartService.COOKIE_NAME, required = false) String guestCartToken,
             @PathVariable Long productId) {
+        if (user == null) {
+            requireGuestCart(guestCartToken).remove(productId);
+            return ResponseEntity.ok().build();
+        }
         cartService.removeFromCart(user, productId);
         return ResponseEntity.ok().build();
     }
 
     @PutMapping("/update/{productId}")
     public ResponseEntity<Void> updateQuantity(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal(errorOnInvalidType = false) User user,
+            @CookieValue(name = GuestCartService.COOKIE_NAME, required = false) String guestCartToken,
             @PathVariable Long productId,
             @RequestParam Integer quantity) {
+        if (user == null) {
+            guestCartService.updateQuantity(requireGuestCart(guestCartToken), productId, quantity);
+            return ResponseEntity.ok().build();
+        }
         cartService.updateQuantity(user, productId, quantity);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    private GuestCart requireGuestCart(String guestCartToken) {
+        return guestCartService.find(guestCartToken)
+                .orElseThrow(() -> new IllegalArgumentException("Sepet bulunamadı"));
+    }
+}
@@ -1,16 +1,39 @@
 package com.ardagonca.e_commerce.controller;
 
+import com.ardagonca.e_commerce.config.BulkheadFullException;
+import com.ardagonca.e_commerce.config.DatabaseCircuitBreaker;
+import com.ardagonca.e_commerce.config.DatabaseUnavailableException;
+import com.ardagonca.e_commerce.config.LowPriority;
+import com.ardagonca.e_commerce.dto.ErrorResponse;
+import com.ardagonca.e_commerce.dto.ProductBatchResponse;
 import com.ardagonca.e_commerce.dto.ProductRequest;
+import com.ardagonca.e_commerce.dto.ProductSearchResponse;
+import com.ardagonca.e_commerce.dto.ProductSuggestion;
 import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.service.CatalogSnapshotService;
+import com.ardagonca.e_commerce.service.CatalogVersion;
+import com.ardagonca.e_commerce.service.ColumnarCatalog;
+import com.ardagonca.e_commerce.service.ImageCache;
+import com.ardagonca.e_commerce.service.ProductEventBroadcaster;
 import com.ardagonca.e_commerce.service.ProductService;
+import com.ardagonca.e_commerce.service.ProductSuggestService;
+import com.ardagonca.e_commerce.service.RelatedProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -26,7 +49,16 @@ import java.util.UUID;
 @Slf4j
 public class ProductController {
     private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductEventBroadcaster productEventBroadcaster;
+    private final ColumnarCatalog columnarCatalog;
+    private final ProductSuggestService productSuggestService;
+    private final RelatedProductService relatedProductService;
+    private final ImageCache imageCache;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
     private static final String UPLOAD_DIR = "uploads/images";
+    private static final int MAX_BATCH_IDS = 100;
 
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -36,13 +68,125 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Gövde katalog değiştiğinde bir kez serileştirilir ve sıkıştırılır; burada yalnızca kopyasız yazılır.
+        // Yenisi hazırlanırken son iyi görüntü sunulur, ETag da ona göre verilir.
+        var snapshot = catalogSnapshotService.current();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return notModified(snapshot.etag());
+        }
+        var body = page != null ? snapshot.page(page) : snapshot.all();
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        var response = ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Total-Count", String.valueOf(snapshot.totalCount()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body.encoded(gzip));
+    }
+
+    /** Seyrek alan kümesi: {@code ?fields=id,name,price,imageUrl&page=0&size=50}. */
+    @GetMapping(params = {"fields", "!ids"})
+    @LowPriority
+    public ResponseEntity<?> getProductFields(
+            @RequestParam List<String> fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (fields.isEmpty() || page < 0 || size < 1 || size > 200) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            var result = productService.getProductFields(
+                    fields.stream().map(String::trim).distinct().toList(),
+                    PageRequest.of(page, size, Sort.by("id")));
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                    .body(result.getContent());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /** Sepet ve liste sayfaları için tek istekte birden çok ürün: {@code ?ids=1,2,3}. */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "asc") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean descending = "desc".equalsIgnoreCase(sort);
+        return ResponseEntity.ok(columnarCatalog.search(
+                minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY,
+                descending, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > productSuggestService.getMaxLimit()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductEvents() {
+        return productEventBroadcaster.subscribe();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest webRequest) {
+        if (!databaseCircuitBreaker.isClosed()) {
+            // Veritabanı zorlanırken son iyi katalog görüntüsünden yanıt verilir
+            Product stale = catalogSnapshotService.lastKnownProduct(id);
+            if (stale != null) {
+                return ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                        .body(stale);
+            }
+        }
+        String etag = catalogVersion.productEtag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(productService.getProductById(id));
+    }
+
+    @GetMapping("/{id}/related")
+    @LowPriority
+    public ResponseEntity<List<Product>> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(relatedProductService.getRelatedProducts(id, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -78,24 +222,13 @@ public class ProductController {
     }
 
     @GetMapping("/image/{id}")
-    public ResponseEntity<byte[]> getProductImage(@PathVariable Long id) {
+    public ResponseEntity<Resource> getProductImage(@PathVariable Long id) {
         try {
             Product product = productService.getProductById(id);
             String fileName = product.getImageUrl().substring(product.getImageUrl().lastIndexOf("/") + 1);
-            Path imagePath = Paths.get(UPLOAD_DIR, fileName);
-            
-            if (!Files.exists(imagePath)) {
-                log.error("Resim bulunamadı: {}", imagePath);
-                return ResponseEntity.notFound().build();
-            }
-
-            String contentType = Files.probeContentType(imagePath);
-            MediaType mediaType = MediaType.parseMediaType(contentType != null ? contentType : "image/jpeg");
-
-            byte[] imageBytes = Files.readAllBytes(imagePath);
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .body(imageBytes);
+            return serveImage(Paths.get(UPLOAD_DIR, fileName));
+        } catch (BulkheadFullException | DatabaseUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Resim getirme hatası: ", e);
             return ResponseEntity.internalServerError().build();
@@ -103,22 +236,9 @@ public class ProductController {
     }
 
     @GetMapping("/images/{fileName}")
-    public ResponseEntity<byte[]> getImageByFileName(@PathVariable String fileName) {
+    public ResponseEntity<Resource> getImageByFileName(@PathVariable String fileName) {
         try {
-            Path imagePath = Paths.get(UPLOAD_DIR, fileName);
-            
-            if (!Files.exists(imagePath)) {
-                log.error("Resim bulunamadı: {}", imagePath);
-                return ResponseEntity.notFound().build();
-            }
-
-            String contentType = Files.probeContentType(imagePath);
-            MediaType mediaType = MediaType.parseMediaType(contentType != null ? contentType : "image/jpeg");
-
-            byte[] imageBytes = Files.readAllBytes(imagePath);
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .body(imageBytes);
+            return serveImage(Paths.get(UPLOAD_DIR, fileName));
         } catch (Exception e) {
             log.error("Resim getirme hatası: ", e);
             return ResponseEntity.internalServerError().build();
@@ -131,4 +251,55 @@ public class ProductController {
         log.debug("Ürün güncelleme isteği alındı: {}", id);
         return ResponseEntity.ok(productService.updateProduct(id, request));
     }
-} 
\ No newline at end of file
+
+    /** Sık istenen resimler heap dışı önbellekten, diğerleri diskten akış olarak sunulur. */
+    private ResponseEntity<Resource> serveImage(Path imagePath) throws IOException {
+        Resource image = imageCache.resolve(imagePath);
+        if (image == null) {
+            log.error("Resim bulunamadı: {}", imagePath);
+            return ResponseEntity.notFound().build();
+        }
+
+        String contentType = image instanceof ImageCache.CachedImage cached
+                ? cached.getContentType()
+                : Files.probeContentType(imagePath);
+        MediaType mediaType = MediaType.parseMediaType(contentType != null ? contentType : "image/jpeg");
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(image);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        if (Double.parseDouble(param.substring(2)) <= 0.0) {
+                            return false;
+                        }
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+}
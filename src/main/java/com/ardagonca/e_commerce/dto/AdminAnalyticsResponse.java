@@ -0,0 +1,43 @@
+package com.ardagonca.e_commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminAnalyticsResponse {
+    private Instant generatedAt;
+    private long openCartCount;
+    private double openCartValue;
+    private List<ProductStat> topProductsByCartCount;
+    private List<ProductStat> topProductsByQuantity;
+    private List<Bucket> cartValueHistogram;
+    private List<Bucket> cartSizeHistogram;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductStat {
+        private Long productId;
+        private String name;
+        private long cartCount;
+        private long quantity;
+    }
+
+    /** {@code [from, to)} aralığı; son kovada {@code to} {@code null}'dır. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private double from;
+        private Double to;
+        private long count;
+    }
+}
@@ -17,6 +17,10 @@ import java.util.stream.Collectors;
 public class CartResponse {
     private Long id;
     private List<CartItemResponse> items;
+    /** İndirimlerden önceki tutar. */
+    private Double subtotal;
+    private Double discount;
+    /** Ödenecek tutar: ara toplam eksi indirim. */
     private Double totalPrice;
 
     public static CartResponse fromCart(Cart cart) {
@@ -40,6 +44,7 @@ public class CartResponse {
         private Double price;
         private Integer quantity;
         private Double totalPrice;
+        private Double discount;
 
         public static CartItemResponse fromCartItem(CartItem item) {
             return CartItemResponse.builder()
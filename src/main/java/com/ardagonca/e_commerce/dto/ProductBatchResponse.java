@@ -0,0 +1,20 @@
+package com.ardagonca.e_commerce.dto;
+
+import com.ardagonca.e_commerce.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+    /** İstekteki sırayla bulunan ürünler. */
+    private List<Product> products;
+    /** Bulunamayan kimlikler, istekteki sırayla. */
+    private List<Long> missingIds;
+}
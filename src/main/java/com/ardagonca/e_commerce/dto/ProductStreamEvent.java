@@ -0,0 +1,49 @@
+package com.ardagonca.e_commerce.dto;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductStreamEvent {
+    private String type;
+    private Long productId;
+    private String name;
+    private Double price;
+    private Double previousPrice;
+    private Integer stock;
+    private Integer previousStock;
+
+    public static ProductStreamEvent fromEvent(ProductChangedEvent event) {
+        var builder = ProductStreamEvent.builder()
+                .type(eventName(event))
+                .productId(event.getProductId());
+        if (event.getProduct() != null) {
+            builder.name(event.getProduct().getName())
+                    .price(event.getProduct().getPrice())
+                    .stock(event.getProduct().getStock());
+        }
+        if (event.isPriceChanged()) {
+            builder.previousPrice(event.getPreviousPrice());
+        }
+        if (event.isStockChanged()) {
+            builder.previousStock(event.getPreviousStock());
+        }
+        return builder.build();
+    }
+
+    public static String eventName(ProductChangedEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> "product-created";
+            case DELETED -> "product-deleted";
+            case UPDATED -> event.isStockChanged() && !event.isPriceChanged() ? "stock-changed" : "product-updated";
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.ardagonca.e_commerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Sepete yeni bir ürün eklendiğinde ya da ürün sepetten çıkarıldığında
+ * yayınlanır. Adet değişiklikleri bu olayı üretmez.
+ */
+@Getter
+@AllArgsConstructor
+public class CartChangedEvent {
+
+    public enum Type {
+        ITEM_ADDED,
+        ITEM_REMOVED
+    }
+
+    private final Type type;
+    private final Long cartId;
+    private final Long productId;
+    /** Eklenen ya da çıkarılan {@code cart_items} satırının kimliği. */
+    private final Long cartItemId;
+    /** Değişiklik anında sepette kalan diğer ürünler. */
+    private final long[] otherProductIds;
+
+    public static CartChangedEvent itemAdded(Long cartId, Long productId, Long cartItemId, long[] otherProductIds) {
+        return new CartChangedEvent(Type.ITEM_ADDED, cartId, productId, cartItemId, otherProductIds);
+    }
+
+    public static CartChangedEvent itemRemoved(Long cartId, Long productId, Long cartItemId, long[] otherProductIds) {
+        return new CartChangedEvent(Type.ITEM_REMOVED, cartId, productId, cartItemId, otherProductIds);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ardagonca.e_commerce.event;
+
+/**
+ * Boşta kalan sepet temizliği en az bir sepeti sildiğinde yayınlanır;
+ * silinen sepetlerden türetilmiş bellek içi yapılar yeniden kurulur.
+ */
+public record CartsPurgedEvent(int deletedCarts) {
+}
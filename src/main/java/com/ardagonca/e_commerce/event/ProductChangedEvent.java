@@ -0,0 +1,52 @@
+package com.ardagonca.e_commerce.event;
+
+import com.ardagonca.e_commerce.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Ürün yazma işlemlerinden sonra yayınlanır. Dinleyiciler
+ * {@code @TransactionalEventListener} ile commit sonrasında tepki verir.
+ * Olay aynı işlemde {@code catalog_outbox} tablosuna da yazılır; türetilmiş
+ * yapılar değişiklikleri tüm düğümlerde oradan alır.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    /** Silme olaylarında {@code null}. */
+    private final Product product;
+    /** Güncellemeden önceki fiyat ve stok; diğer olaylarda {@code null}. */
+    private final Double previousPrice;
+    private final Integer previousStock;
+    /** Başka bir düğümde yapılmış değişiklik; yalnızca outbox aktarıcısının ürettiği olaylarda olabilir. */
+    private final boolean remote;
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product, null, null, false);
+    }
+
+    public static ProductChangedEvent updated(Product product, Double previousPrice, Integer previousStock) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product, previousPrice, previousStock, false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null, null, null, false);
+    }
+
+    public boolean isPriceChanged() {
+        return type == Type.UPDATED && previousPrice != null && !previousPrice.equals(product.getPrice());
+    }
+
+    public boolean isStockChanged() {
+        return type == Type.UPDATED && previousStock != null && !previousStock.equals(product.getStock());
+    }
+}
@@ -0,0 +1,8 @@
+package com.ardagonca.e_commerce.event;
+
+/**
+ * Promosyon kuralları değiştiğinde yayınlanır; commit sonrasında
+ * fiyatlandırma planı yeniden derlenir.
+ */
+public record PromotionsChangedEvent(Long promotionId) {
+}
@@ -0,0 +1,16 @@
+package com.ardagonca.e_commerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Kullanıcı bilgileri (e-posta, şifre) değiştiğinde yayınlanır.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+    /** Değişiklikten önceki e-posta; doğal kimlik önbelleği bu anahtarla tutulur. */
+    private final String previousEmail;
+}
@@ -1,10 +1,12 @@
 package com.ardagonca.e_commerce.model;
 
+import com.ardagonca.e_commerce.util.Money;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +37,9 @@ public class Cart {
     @Builder.Default
     private Double totalPrice = 0.0;
 
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
@@ -48,8 +53,18 @@ public class Cart {
     }
 
     public void calculateTotalPrice() {
-        this.totalPrice = items.stream()
-                .mapToDouble(CartItem::getTotalPrice)
-                .sum();
+        long total = 0;
+        for (CartItem item : items) {
+            total += Money.toMinor(item.getTotalPrice());
+        }
+        this.totalPrice = Money.fromMinor(total);
+        this.updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (updatedAt == null) {
+            updatedAt = Instant.now();
+        }
     }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ardagonca.e_commerce.model;
 
+import com.ardagonca.e_commerce.util.Money;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -39,7 +40,7 @@ public class CartItem {
 
     public void updatePrices() {
         this.unitPrice = this.product.getPrice();
-        this.totalPrice = this.unitPrice * this.quantity;
+        this.totalPrice = Money.fromMinor(Money.toMinor(this.unitPrice) * this.quantity);
     }
 
     public Double getSubTotal() {
@@ -2,6 +2,8 @@ package com.ardagonca.e_commerce.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -10,6 +12,8 @@ import lombok.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,55 @@
+package com.ardagonca.e_commerce.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "promotions")
+public class Promotion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private PromotionType type;
+
+    /** Kuralın geçerli olduğu ürün; {@code null} ise tüm ürünler. Sepet eşiği kurallarında kullanılmaz. */
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "discount_percent")
+    private Double discountPercent;
+
+    @Column(name = "discount_amount")
+    private Double discountAmount;
+
+    @Column(name = "buy_quantity")
+    private Integer buyQuantity;
+
+    @Column(name = "free_quantity")
+    private Integer freeQuantity;
+
+    @Column(name = "min_cart_total")
+    private Double minCartTotal;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @Column(name = "starts_at")
+    private Instant startsAt;
+
+    @Column(name = "ends_at")
+    private Instant endsAt;
+}
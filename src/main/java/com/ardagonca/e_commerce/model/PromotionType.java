@@ -0,0 +1,12 @@
+package com.ardagonca.e_commerce.model;
+
+public enum PromotionType {
+    /** Ürün (veya tüm ürünler) için yüzde indirim. */
+    PERCENTAGE,
+    /** Ürün (veya tüm ürünler) için birim başına sabit tutar indirimi. */
+    FIXED_AMOUNT,
+    /** X al Y öde: her buyQuantity + freeQuantity adetten freeQuantity adedi ücretsiz. */
+    BUY_X_GET_Y,
+    /** Sepet tutarı eşiği aşınca yüzde ya da sabit tutar indirimi. */
+    CART_THRESHOLD
+}
@@ -3,10 +3,60 @@ package com.ardagonca.e_commerce.repository;
 import com.ardagonca.e_commerce.model.Cart;
 import com.ardagonca.e_commerce.model.CartItem;
 import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.model.User;
+import com.ardagonca.e_commerce.repository.projection.CartProductView;
+import com.ardagonca.e_commerce.repository.projection.CartTotalsView;
+import com.ardagonca.e_commerce.repository.projection.ProductCartStatsView;
+import com.ardagonca.e_commerce.repository.projection.ProductPopularityView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
+
+    @Query("SELECT ci.product.id FROM CartItem ci WHERE ci.cart.user = :user")
+    List<Long> findProductIdsByUser(@Param("user") User user);
+
+    @Query("SELECT ci.product.id AS productId, COUNT(ci) AS cartCount FROM CartItem ci GROUP BY ci.product.id")
+    List<ProductPopularityView> countCartsByProduct();
+
+    /** Sepete göre sıralı akış; çağıran açık bir işlem içinde tüketip kapatmalıdır. */
+    @Query("SELECT ci.id AS id, ci.cart.id AS cartId, ci.product.id AS productId FROM CartItem ci ORDER BY ci.cart.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<CartProductView> streamCartProducts();
+
+    @Query("SELECT ci.product.id AS productId, ci.product.name AS name, COUNT(ci) AS cartCount, SUM(ci.quantity) AS quantity " +
+            "FROM CartItem ci GROUP BY ci.product.id, ci.product.name ORDER BY COUNT(ci) DESC, ci.product.id")
+    List<ProductCartStatsView> findTopProductsByCartCount(Limit limit);
+
+    @Query("SELECT ci.product.id AS productId, ci.product.name AS name, COUNT(ci) AS cartCount, SUM(ci.quantity) AS quantity " +
+            "FROM CartItem ci GROUP BY ci.product.id, ci.product.name ORDER BY SUM(ci.quantity) DESC, ci.product.id")
+    List<ProductCartStatsView> findTopProductsByQuantity(Limit limit);
+
+    /** Sepet başına toplamlar veritabanında hesaplanır; çağıran açık bir işlem içinde tüketip kapatmalıdır. */
+    @Query("SELECT ci.cart.id AS cartId, COUNT(ci) AS itemCount, SUM(ci.totalPrice) AS value FROM CartItem ci GROUP BY ci.cart.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<CartTotalsView> streamCartTotals();
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteAllByCartIdIn(@Param("cartIds") List<Long> cartIds);
 } 
\ No newline at end of file
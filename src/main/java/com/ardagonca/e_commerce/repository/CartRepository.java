@@ -2,10 +2,14 @@ package com.ardagonca.e_commerce.repository;
 
 import com.ardagonca.e_commerce.model.Cart;
 import com.ardagonca.e_commerce.model.User;
+import com.ardagonca.e_commerce.repository.projection.IdleCartView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
@@ -13,4 +17,20 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.user = :user")
     Optional<Cart> findByUserWithItems(@Param("user") User user);
+
+    /**
+     * Anahtar sıralı sayfalama ile boşta kalan sepetleri kilitleyerek seçer.
+     * Canlı trafiğin kilitlediği satırlar beklenmeden atlanır.
+     */
+    @Query(value = "SELECT id AS \"id\", user_id AS \"userId\" FROM carts WHERE updated_at < :cutoff AND id > :afterId " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<IdleCartView> lockIdleCarts(@Param("cutoff") Instant cutoff, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.updatedAt = :now WHERE c.updatedAt IS NULL")
+    int backfillUpdatedAt(@Param("now") Instant now);
 } 
\ No newline at end of file
@@ -1,9 +1,29 @@
 package com.ardagonca.e_commerce.repository;
 
 import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.projection.ProductCardView;
+import com.ardagonca.e_commerce.repository.projection.ProductSummaryView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-} 
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryView> findSummariesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query(value = "SELECT p.id AS id, p.name AS name, p.price AS price FROM Product p",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductSummaryView> findSummaries(Pageable pageable);
+
+    @Query(value = "SELECT p.id AS id, p.name AS name, p.price AS price, p.imageUrl AS imageUrl, p.stock AS stock FROM Product p",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductCardView> findCards(Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.ardagonca.e_commerce.model.Product;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Ürünleri verilen sırayla yükler; bulunamayan kimliklerin yerinde {@code null} döner.
+     * Önce ikinci seviye önbelleğe bakılır, kalanlar tek bir IN sorgusuyla getirilir.
+     */
+    List<Product> findAllByIdInOrder(List<Long> ids);
+}
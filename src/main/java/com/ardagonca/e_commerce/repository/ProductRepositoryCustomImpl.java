@@ -0,0 +1,31 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.ardagonca.e_commerce.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Sonuçlar ikinci seviye önbelleğe girer; bu yüzden replikaya değil birincil veritabanına gider. */
+    @Override
+    @Transactional
+    public List<Product> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .with(CacheMode.NORMAL)
+                .withBatchSize(ids.size())
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+}
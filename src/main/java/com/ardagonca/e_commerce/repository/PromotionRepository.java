@@ -0,0 +1,9 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.ardagonca.e_commerce.model.Promotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PromotionRepository extends JpaRepository<Promotion, Long> {
+}
@@ -3,9 +3,6 @@ package com.ardagonca.e_commerce.repository;
 import com.ardagonca.e_commerce.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Boolean existsByEmail(String email);
 } 
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.ardagonca.e_commerce.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * E-posta doğal anahtar olduğundan arama önce ikinci seviye önbelleğe bakar.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,30 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.ardagonca.e_commerce.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sonuç ikinci seviye önbelleğe girer; başka düğümde geçersizleştirilen kullanıcı
+     * gecikmeli replikadan değil birincil veritabanından yeniden yüklenir.
+     */
+    @Override
+    @Transactional
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Sepet satırının yalnızca kendi, sepet ve ürün kimlikleri.
+ */
+public interface CartProductView {
+    Long getId();
+
+    Long getCartId();
+
+    Long getProductId();
+}
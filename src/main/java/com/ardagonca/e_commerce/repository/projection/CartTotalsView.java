@@ -0,0 +1,12 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Sepet başına ürün sayısı ve toplam tutar.
+ */
+public interface CartTotalsView {
+    Long getCartId();
+
+    Long getItemCount();
+
+    Double getValue();
+}
@@ -0,0 +1,10 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Temizlik için kilitlenen boşta sepetin kimliği ve sahibi.
+ */
+public interface IdleCartView {
+    Long getId();
+
+    Long getUserId();
+}
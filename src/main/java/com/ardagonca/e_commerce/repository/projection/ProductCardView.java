@@ -0,0 +1,10 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Ürün kartları (liste ve ızgara sayfaları) için görünüm; açıklama sütunu seçilmez.
+ */
+public interface ProductCardView extends ProductSummaryView {
+    String getImageUrl();
+
+    Integer getStock();
+}
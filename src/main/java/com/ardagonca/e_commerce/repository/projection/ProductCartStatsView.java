@@ -0,0 +1,14 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Ürün başına sepet sayısı ve toplam adet.
+ */
+public interface ProductCartStatsView {
+    Long getProductId();
+
+    String getName();
+
+    Long getCartCount();
+
+    Long getQuantity();
+}
@@ -0,0 +1,10 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Bir ürünün kaç sepette bulunduğunu taşıyan görünüm.
+ */
+public interface ProductPopularityView {
+    Long getProductId();
+
+    Long getCartCount();
+}
@@ -0,0 +1,12 @@
+package com.ardagonca.e_commerce.repository.projection;
+
+/**
+ * Yalnızca kimlik, ad ve fiyat sütunlarını seçen ürün görünümü.
+ */
+public interface ProductSummaryView {
+    Long getId();
+
+    String getName();
+
+    Double getPrice();
+}
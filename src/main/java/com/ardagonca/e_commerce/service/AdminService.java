@@ -1,39 +1,51 @@
 package com.ardagonca.e_commerce.service;
 
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
 import com.ardagonca.e_commerce.model.Product;
 import com.ardagonca.e_commerce.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Bulkhead("admin")
 @RequiredArgsConstructor
 public class AdminService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     @Transactional
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
     @Transactional
     public Product updateProduct(Long id, Product updatedProduct) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
+        Double previousPrice = product.getPrice();
+        Integer previousStock = product.getStock();
         
         product.setName(updatedProduct.getName());
         product.setPrice(updatedProduct.getPrice());
         product.setImageUrl(updatedProduct.getImageUrl());
         product.setStock(updatedProduct.getStock());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved, previousPrice, previousStock));
+        return saved;
     }
 
     @Transactional
@@ -41,5 +53,6 @@ public class AdminService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.AdminAnalyticsResponse;
+import com.ardagonca.e_commerce.repository.CartItemRepository;
+import com.ardagonca.e_commerce.repository.projection.CartTotalsView;
+import com.ardagonca.e_commerce.repository.projection.ProductCartStatsView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Yönetim paneli için sepet analizleri.
+ * <p>
+ * Ürün sıralamaları ve sepet başına toplamlar veritabanında gruplanır. Sepet
+ * toplamları akış halinde ilkel dizilere alınır; tutar ve boyut histogramları
+ * bu diziler üzerinde fork/join ile paralel hesaplanır. Sonuç bellekte tutulur
+ * ve zamanlanmış olarak yenilenir.
+ */
+@Service
+@Slf4j
+public class AnalyticsService {
+
+    /** Bu boyutun altındaki dilimler bölünmeden tek iş parçacığında sayılır. */
+    private static final int SEQUENTIAL_THRESHOLD = 8_192;
+
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int topN;
+    private final double[] valueBounds;
+    private final double[] sizeBounds;
+
+    private volatile AdminAnalyticsResponse latest;
+
+    public AnalyticsService(
+            CartItemRepository cartItemRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.analytics.top-n:10}") int topN,
+            @Value("${app.analytics.value-buckets:0,50,100,250,500,1000,2500,5000}") double[] valueBounds,
+            @Value("${app.analytics.size-buckets:1,2,3,5,10,20}") double[] sizeBounds) {
+        this.cartItemRepository = cartItemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.topN = topN;
+        this.valueBounds = valueBounds.clone();
+        this.sizeBounds = sizeBounds.clone();
+        Arrays.sort(this.valueBounds);
+        Arrays.sort(this.sizeBounds);
+    }
+
+    @Bulkhead("admin")
+    public AdminAnalyticsResponse getAnalytics() {
+        AdminAnalyticsResponse current = latest;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (latest == null) {
+                latest = compute();
+            }
+            return latest;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-ms:300000}",
+            initialDelayString = "${app.analytics.refresh-ms:300000}")
+    public void refresh() {
+        AdminAnalyticsResponse computed = compute();
+        synchronized (this) {
+            latest = computed;
+        }
+    }
+
+    private AdminAnalyticsResponse compute() {
+        long start = System.nanoTime();
+        return readOnlyTransaction.execute(status -> {
+            List<AdminAnalyticsResponse.ProductStat> byCartCount =
+                    toStats(cartItemRepository.findTopProductsByCartCount(Limit.of(topN)));
+            List<AdminAnalyticsResponse.ProductStat> byQuantity =
+                    toStats(cartItemRepository.findTopProductsByQuantity(Limit.of(topN)));
+
+            CartTotals totals = new CartTotals();
+            try (Stream<CartTotalsView> rows = cartItemRepository.streamCartTotals()) {
+                rows.forEach(row -> totals.add(row.getItemCount(), row.getValue()));
+            }
+
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            long[] valueCounts = pool.invoke(new HistogramTask(totals.values, 0, totals.size, valueBounds));
+            long[] sizeCounts = pool.invoke(new HistogramTask(totals.sizes, 0, totals.size, sizeBounds));
+            double openCartValue = pool.invoke(new SumTask(totals.values, 0, totals.size));
+
+            log.info("Sepet analizleri hesaplandı: {} açık sepet, {} ms",
+                    totals.size, (System.nanoTime() - start) / 1_000_000);
+            return AdminAnalyticsResponse.builder()
+                    .generatedAt(Instant.now())
+                    .openCartCount(totals.size)
+                    .openCartValue(openCartValue)
+                    .topProductsByCartCount(byCartCount)
+                    .topProductsByQuantity(byQuantity)
+                    .cartValueHistogram(toBuckets(valueBounds, valueCounts))
+                    .cartSizeHistogram(toBuckets(sizeBounds, sizeCounts))
+                    .build();
+        });
+    }
+
+    private static List<AdminAnalyticsResponse.ProductStat> toStats(List<ProductCartStatsView> views) {
+        return views.stream()
+                .map(view -> new AdminAnalyticsResponse.ProductStat(
+                        view.getProductId(), view.getName(), view.getCartCount(), view.getQuantity()))
+                .toList();
+    }
+
+    private static List<AdminAnalyticsResponse.Bucket> toBuckets(double[] bounds, long[] counts) {
+        List<AdminAnalyticsResponse.Bucket> buckets = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            Double to = i + 1 < bounds.length ? bounds[i + 1] : null;
+            buckets.add(new AdminAnalyticsResponse.Bucket(bounds[i], to, counts[i]));
+        }
+        return buckets;
+    }
+
+    /** Akıştan gelen sepet toplamlarını büyüyen ilkel dizilerde biriktirir. */
+    private static final class CartTotals {
+        private double[] values = new double[1024];
+        private double[] sizes = new double[1024];
+        private int size;
+
+        void add(long itemCount, Double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                sizes = Arrays.copyOf(sizes, size * 2);
+            }
+            values[size] = value != null ? value : 0.0;
+            sizes[size] = itemCount;
+            size++;
+        }
+    }
+
+    /** Kova sınırlarına göre sayım; ilk sınırın altındaki değerler ilk kovaya yazılır. */
+    private static final class HistogramTask extends RecursiveTask<long[]> {
+        private final double[] data;
+        private final int from;
+        private final int to;
+        private final double[] bounds;
+
+        HistogramTask(double[] data, int from, int to, double[] bounds) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.bounds = bounds;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                long[] counts = new long[bounds.length];
+                for (int i = from; i < to; i++) {
+                    int index = Arrays.binarySearch(bounds, data[i]);
+                    // Sınırın kendisi kendi kovasına düşer; aradaki değer bir önceki sınırın kovasına
+                    int bucket = index >= 0 ? index : Math.max(0, -(index + 1) - 1);
+                    counts[bucket]++;
+                }
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            HistogramTask left = new HistogramTask(data, from, mid, bounds);
+            left.fork();
+            long[] right = new HistogramTask(data, mid, to, bounds).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<Double> {
+        private final double[] data;
+        private final int from;
+        private final int to;
+
+        SumTask(double[] data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                double sum = 0.0;
+                for (int i = from; i < to; i++) {
+                    sum += data[i];
+                }
+                return sum;
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(data, from, mid);
+            left.fork();
+            double right = new SumTask(data, mid, to).compute();
+            return left.join() + right;
+        }
+    }
+}
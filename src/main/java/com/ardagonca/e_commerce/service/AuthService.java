@@ -1,5 +1,6 @@
 package com.ardagonca.e_commerce.service;
 
+import com.ardagonca.e_commerce.config.Bulkhead;
 import com.ardagonca.e_commerce.dto.LoginRequest;
 import com.ardagonca.e_commerce.dto.RegisterRequest;
 import com.ardagonca.e_commerce.model.Role;
@@ -18,6 +19,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Bulkhead("auth")
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
@@ -26,6 +28,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final GuestCartService guestCartService;
+    private final CartService cartService;
 
     @Transactional
     public Map<String, String> register(RegisterRequest request) {
@@ -87,6 +91,17 @@ public class AuthService {
     }
 
     public Map<String, String> login(LoginRequest request) {
+        return login(request, null).response();
+    }
+
+    /**
+     * Giriş yanıtı ve misafir sepetinin durumu. Birleştirme başarısız olduysa
+     * sepet geri konmuştur; çerezi silinmemelidir.
+     */
+    public record LoginResult(Map<String, String> response, boolean guestCartMerged) {
+    }
+
+    public LoginResult login(LoginRequest request, String guestCartToken) {
         try {
             log.info("Kullanıcı girişi başlatılıyor: {}", request.getEmail());
 
@@ -111,12 +126,14 @@ public class AuthService {
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new IllegalArgumentException("Kullanıcı bulunamadı"));
 
+            boolean guestCartMerged = mergeGuestCart(user, guestCartToken);
+
             String token = jwtService.generateToken(user);
             Map<String, String> response = new HashMap<>();
             response.put("token", token);
 
             log.info("Kullanıcı başarıyla giriş yaptı: {}", user.getEmail());
-            return response;
+            return new LoginResult(response, guestCartMerged);
         } catch (IllegalArgumentException e) {
             log.warn("Giriş işlemi başarısız: {}", e.getMessage());
             throw e;
@@ -126,6 +143,24 @@ public class AuthService {
         }
     }
 
+    /** Misafir sepeti yoksa ya da birleştirildiyse {@code true}. */
+    private boolean mergeGuestCart(User user, String guestCartToken) {
+        GuestCart guestCart = guestCartService.take(guestCartToken).orElse(null);
+        if (guestCart == null) {
+            return true;
+        }
+        try {
+            cartService.mergeGuestCart(user, guestCart);
+            return true;
+        } catch (Exception e) {
+            // Birleştirme başarısız olsa da giriş engellenmez; misafir sepeti geri konur
+            log.warn("Misafir sepeti birleştirilemedi: {}", e.getMessage());
+            guestCartService.restore(guestCart);
+            return false;
+        }
+    }
+
+    @Transactional(readOnly = true)
     public boolean isAdmin(String email) {
         return userRepository.findByEmail(email)
                 .map(user -> user.getRole() == Role.ADMIN)
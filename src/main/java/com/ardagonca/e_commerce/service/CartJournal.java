@@ -0,0 +1,117 @@
+package com.ardagonca.e_commerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sepet adet değişiklikleri için yalnızca sona eklenen yerel günlük.
+ * <pre>
+ * Q,&lt;userId&gt;,&lt;productId&gt;,&lt;adet&gt;   bekleyen adet değişikliği
+ * F,&lt;userId&gt;                        kullanıcının önceki kayıtları veritabanına yazıldı
+ * </pre>
+ * Her kayıt diske zorlanmadan (fsync) çağırana onay verilmez.
+ */
+@Slf4j
+class CartJournal implements Closeable {
+
+    private static final String FILE_NAME = "cart-journal.log";
+
+    private final Path file;
+    private final boolean fsync;
+    private FileChannel channel;
+
+    CartJournal(Path directory, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.fsync = fsync;
+        this.channel = open(file);
+    }
+
+    synchronized void appendQuantity(long userId, long productId, int quantity) throws IOException {
+        write("Q," + userId + "," + productId + "," + quantity + "\n");
+    }
+
+    synchronized void appendFlushed(long userId) throws IOException {
+        write("F," + userId + "\n");
+    }
+
+    /** Veritabanına yazılmamış (F kaydıyla kapanmamış) değişiklikleri kullanıcı bazında döndürür. */
+    synchronized Map<Long, Map<Long, Integer>> replay() throws IOException {
+        Map<Long, Map<Long, Integer>> pending = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                try {
+                    if (parts.length == 4 && parts[0].equals("Q")) {
+                        pending.computeIfAbsent(Long.parseLong(parts[1]), id -> new LinkedHashMap<>())
+                                .put(Long.parseLong(parts[2]), Integer.parseInt(parts[3]));
+                    } else if (parts.length == 2 && parts[0].equals("F")) {
+                        pending.remove(Long.parseLong(parts[1]));
+                    } else {
+                        log.warn("Sepet günlüğünde tanınmayan satır atlandı: {}", line);
+                    }
+                } catch (NumberFormatException e) {
+                    // Çökme anında yarım kalmış son satır
+                    log.warn("Sepet günlüğünde bozuk satır atlandı: {}", line);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /** Günlüğü yalnızca verilen bekleyen değişiklikleri içerecek şekilde atomik olarak yeniden yazar. */
+    synchronized void rewrite(Map<Long, Map<Long, Integer>> pending) throws IOException {
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        StringBuilder content = new StringBuilder();
+        pending.forEach((userId, changes) -> changes.forEach((productId, quantity) ->
+                content.append("Q,").append(userId).append(',').append(productId).append(',').append(quantity).append('\n')));
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(file);
+    }
+
+    synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(String record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
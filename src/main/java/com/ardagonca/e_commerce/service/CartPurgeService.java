@@ -0,0 +1,121 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.CartsPurgedEvent;
+import com.ardagonca.e_commerce.repository.CartItemRepository;
+import com.ardagonca.e_commerce.repository.CartRepository;
+import com.ardagonca.e_commerce.repository.projection.IdleCartView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Belirli bir süreden uzun süredir değişmeyen sepetleri küçük parçalar
+ * halinde siler. Her parça ayrı bir işlemdir; varlık bazında cascade yerine
+ * toplu {@code DELETE} kullanılır ve parçalar arasında beklenir.
+ * Adet değişiklikleri bellekte bekleyen (write-behind oturumu açık) kullanıcıların
+ * sepetleri atlanır. En az bir sepet silinirse {@link CartsPurgedEvent} yayınlanır.
+ */
+@Service
+@Slf4j
+public class CartPurgeService {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartWriteBehindService writeBehind;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration maxIdle;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    public CartPurgeService(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            CartWriteBehindService writeBehind,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.cart.purge.enabled:true}") boolean enabled,
+            @Value("${app.cart.purge.max-idle:30d}") Duration maxIdle,
+            @Value("${app.cart.purge.chunk-size:500}") int chunkSize,
+            @Value("${app.cart.purge.pause-ms:200}") long pauseMillis) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.writeBehind = writeBehind;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxIdle = maxIdle;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(cron = "${app.cart.purge.cron:0 30 4 * * *}")
+    public void purgeScheduled() {
+        if (enabled) {
+            purgeIdleCarts();
+        }
+    }
+
+    public int purgeIdleCarts() {
+        Instant now = Instant.now();
+        // Zaman damgası eklenmeden önce oluşturulmuş sepetlere tam bir bekleme süresi tanınır
+        Integer backfilled = transactionTemplate.execute(status -> cartRepository.backfillUpdatedAt(now));
+        if (backfilled != null && backfilled > 0) {
+            log.info("{} sepete son değişiklik zamanı atandı", backfilled);
+        }
+
+        Instant cutoff = now.minus(maxIdle);
+        long afterId = 0;
+        int deleted = 0;
+        int skipped = 0;
+        while (true) {
+            long lastId = afterId;
+            Set<Long> activeUsers = writeBehind.activeUserIds();
+            List<IdleCartView> locked = new ArrayList<>();
+            Integer purged = transactionTemplate.execute(status -> {
+                locked.addAll(cartRepository.lockIdleCarts(cutoff, lastId, chunkSize));
+                // Bekleyen adetler yazıldığında sepet değişmiş sayılır; o zamana kadar silinmez
+                List<Long> ids = locked.stream()
+                        .filter(cart -> !activeUsers.contains(cart.getUserId()))
+                        .map(IdleCartView::getId)
+                        .toList();
+                if (!ids.isEmpty()) {
+                    cartItemRepository.deleteAllByCartIdIn(ids);
+                    cartRepository.deleteAllByIdIn(ids);
+                }
+                return ids.size();
+            });
+            if (locked.isEmpty()) {
+                break;
+            }
+            deleted += purged;
+            skipped += locked.size() - purged;
+            afterId = locked.get(locked.size() - 1).getId();
+            if (locked.size() < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Boşta kalan sepet temizliği tamamlandı: {} sepet silindi, {} açık oturum nedeniyle atlandı (sınır: {})",
+                deleted, skipped, cutoff);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new CartsPurgedEvent(deleted));
+        }
+        return deleted;
+    }
+}
@@ -1,5 +1,8 @@
 package com.ardagonca.e_commerce.service;
 
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.CartResponse;
+import com.ardagonca.e_commerce.event.CartChangedEvent;
 import com.ardagonca.e_commerce.model.Cart;
 import com.ardagonca.e_commerce.model.CartItem;
 import com.ardagonca.e_commerce.model.Product;
@@ -7,19 +10,53 @@ import com.ardagonca.e_commerce.model.User;
 import com.ardagonca.e_commerce.repository.CartItemRepository;
 import com.ardagonca.e_commerce.repository.CartRepository;
 import com.ardagonca.e_commerce.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.ardagonca.e_commerce.util.Money;
+import com.ardagonca.e_commerce.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
+@Bulkhead("cart")
 @Slf4j
 public class CartService {
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
+    private final CartWriteBehindService cartWriteBehind;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PromotionService promotionService;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<Long, CartResponse> cartFetches;
+
+    public CartService(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            ProductRepository productRepository,
+            CartWriteBehindService cartWriteBehind,
+            ApplicationEventPublisher eventPublisher,
+            PromotionService promotionService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.cartWriteBehind = cartWriteBehind;
+        this.eventPublisher = eventPublisher;
+        this.promotionService = promotionService;
+        this.transactionTemplate = transactionTemplate;
+        this.cartFetches = new SingleFlight<>("cart", meterRegistry);
+    }
 
     @Transactional
     public Cart getOrCreateCart(User user) {
@@ -38,7 +75,9 @@ public class CartService {
 
     @Transactional
     public CartItem addToCart(User user, Long productId, Integer quantity) {
+        forgetCartAfterCommit(user);
         log.debug("Sepete ürün ekleniyor: {} - {} adet", productId, quantity);
+        cartWriteBehind.flushAndEvict(user);
         Cart cart = getOrCreateCart(user);
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı"));
@@ -56,6 +95,7 @@ public class CartService {
         }
 
         log.debug("Yeni ürün ekleniyor");
+        long[] otherProductIds = productIdsOf(cart);
         CartItem newItem = CartItem.builder()
                 .cart(cart)
                 .product(product)
@@ -63,13 +103,17 @@ public class CartService {
                 .build();
         newItem.updatePrices();
         cart.addItem(newItem);
-        cartRepository.save(cart);
+        Cart saved = cartRepository.save(cart);
+        eventPublisher.publishEvent(
+                CartChangedEvent.itemAdded(saved.getId(), productId, itemIdOf(saved, productId), otherProductIds));
         return newItem;
     }
 
     @Transactional
     public void removeFromCart(User user, Long productId) {
+        forgetCartAfterCommit(user);
         log.debug("Sepetten ürün çıkarılıyor: {}", productId);
+        cartWriteBehind.flushAndEvict(user);
         Cart cart = getOrCreateCart(user);
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı"));
@@ -79,28 +123,130 @@ public class CartService {
 
         cart.removeItem(itemToRemove);
         cartRepository.save(cart);
+        eventPublisher.publishEvent(
+                CartChangedEvent.itemRemoved(cart.getId(), productId, itemToRemove.getId(), productIdsOf(cart)));
         log.debug("Ürün sepetten çıkarıldı: {}", productId);
     }
 
-    @Transactional
+    /**
+     * Geri-yazma modunda işlem açılmaz: değişiklik günlüğe yazılıp bellekte
+     * birleştirilir, tablolara zamanlayıcı toplu aktarır.
+     */
     public void updateQuantity(User user, Long productId, Integer quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Miktar 0'dan büyük olmalıdır");
         }
 
         log.debug("Ürün miktarı güncelleniyor: {} - {} adet", productId, quantity);
+        if (cartWriteBehind.isEnabled()) {
+            cartWriteBehind.updateQuantity(user, productId, quantity);
+            cartFetches.forget(user.getId());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            forgetCartAfterCommit(user);
+            Cart cart = getOrCreateCart(user);
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı"));
+
+            CartItem item = cartItemRepository.findByCartAndProduct(cart, product)
+                    .orElseThrow(() -> new IllegalArgumentException("Ürün sepette bulunamadı"));
+
+            item.setQuantity(quantity);
+            item.updatePrices();
+            cart.calculateTotalPrice();
+            cartRepository.save(cart);
+        });
+        log.debug("Ürün miktarı güncellendi: {}", productId);
+    }
+
+    /**
+     * Misafir sepetini kullanıcının kalıcı sepetine tek işlemde ekler.
+     * Aynı ürün iki sepette de varsa adetler toplanır.
+     */
+    @Transactional
+    public Cart mergeGuestCart(User user, GuestCart guestCart) {
+        forgetCartAfterCommit(user);
+        Map<Long, Integer> quantities = guestCart.snapshot();
+        cartWriteBehind.flushAndEvict(user);
         Cart cart = getOrCreateCart(user);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı"));
+        if (quantities.isEmpty()) {
+            return cart;
+        }
+        log.debug("Misafir sepeti birleştiriliyor: {} ürün, kullanıcı: {}", quantities.size(), user.getEmail());
 
-        CartItem item = cartItemRepository.findByCartAndProduct(cart, product)
-                .orElseThrow(() -> new IllegalArgumentException("Ürün sepette bulunamadı"));
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, CartItem> existingItems = cart.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+        List<Long> addedProductIds = new ArrayList<>();
+        List<long[]> addedOthers = new ArrayList<>();
 
-        item.setQuantity(quantity);
-        item.updatePrices();
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                return;
+            }
+            CartItem existingItem = existingItems.get(productId);
+            if (existingItem != null) {
+                existingItem.setQuantity(existingItem.getQuantity() + quantity);
+                existingItem.updatePrices();
+            } else {
+                long[] otherProductIds = productIdsOf(cart);
+                CartItem newItem = CartItem.builder()
+                        .cart(cart)
+                        .product(product)
+                        .quantity(quantity)
+                        .build();
+                newItem.updatePrices();
+                cart.getItems().add(newItem);
+                addedOthers.add(otherProductIds);
+                addedProductIds.add(productId);
+            }
+        });
         cart.calculateTotalPrice();
-        cartRepository.save(cart);
-        log.debug("Ürün miktarı güncellendi: {}", productId);
+        Cart saved = cartRepository.save(cart);
+        for (int i = 0; i < addedProductIds.size(); i++) {
+            Long productId = addedProductIds.get(i);
+            eventPublisher.publishEvent(CartChangedEvent.itemAdded(
+                    saved.getId(), productId, itemIdOf(saved, productId), addedOthers.get(i)));
+        }
+        return saved;
+    }
+
+    private static Long itemIdOf(Cart cart, Long productId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .map(CartItem::getId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static long[] productIdsOf(Cart cart) {
+        return cart.getItems().stream()
+                .mapToLong(item -> item.getProduct().getId())
+                .toArray();
+    }
+
+    /**
+     * Sepeti, geri-yazma modunda henüz aktarılmamış adetlerle birlikte döndürür.
+     * Promosyonlar yanıt üzerinde hesaplanır; kayıtlı toplam indirimsiz tutardır.
+     * Aynı kullanıcının eşzamanlı istekleri tek okumayı ve aynı yanıtı paylaşır.
+     */
+    public CartResponse getCartResponse(User user) {
+        return cartFetches.load(user.getId(), () -> transactionTemplate.execute(status ->
+                promotionService.applyTo(cartWriteBehind.overlay(user, CartResponse.fromCart(getCart(user))))));
+    }
+
+    /** Değişiklik commit edildikten sonra gelen okumalar yoldaki eski okumaya katılmaz. */
+    private void forgetCartAfterCommit(User user) {
+        Long userId = user.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cartFetches.forget(userId);
+            }
+        });
     }
 
     @Transactional
@@ -123,7 +269,7 @@ public class CartService {
                 boolean priceUpdated = false;
                 for (CartItem item : cart.getItems()) {
                     Product product = item.getProduct();
-                    if (item.getUnitPrice() != product.getPrice()) {
+                    if (Money.toMinor(item.getUnitPrice()) != Money.toMinor(product.getPrice())) {
                         log.debug("Ürün fiyatı güncelleniyor - Ürün: {}, Eski Fiyat: {}, Yeni Fiyat: {}", 
                             product.getId(), item.getUnitPrice(), product.getPrice());
                         item.setUnitPrice(product.getPrice());
@@ -139,18 +285,15 @@ public class CartService {
             }
 
             log.debug("Sepet bulundu. ID: {}, Toplam Fiyat: {}", cart.getId(), cart.getTotalPrice());
-            if (cart.getItems() != null) {
-                log.debug("Sepetteki ürünler:");
-                cart.getItems().forEach(item -> {
-                    log.debug("Ürün - ID: {}, İsim: {}, Miktar: {}, Birim Fiyat: {}, Toplam: {}",
-                            item.getProduct().getId(),
-                            item.getProduct().getName(),
-                            item.getQuantity(),
-                            item.getUnitPrice(),
-                            item.getTotalPrice());
-                });
-            } else {
+            if (cart.getItems() == null) {
                 log.warn("Sepet items listesi null!");
+            } else if (log.isTraceEnabled()) {
+                cart.getItems().forEach(item -> log.trace("Ürün - ID: {}, İsim: {}, Miktar: {}, Birim Fiyat: {}, Toplam: {}",
+                        item.getProduct().getId(),
+                        item.getProduct().getName(),
+                        item.getQuantity(),
+                        item.getUnitPrice(),
+                        item.getTotalPrice()));
             }
             return cart;
         } catch (Exception e) {
@@ -0,0 +1,304 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.dto.CartResponse;
+import com.ardagonca.e_commerce.model.CartItem;
+import com.ardagonca.e_commerce.model.User;
+import com.ardagonca.e_commerce.repository.CartItemRepository;
+import com.ardagonca.e_commerce.repository.CartRepository;
+import com.ardagonca.e_commerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * İsteğe bağlı geri-yazma (write-behind) modu: {@code PUT /cart/update} ile
+ * gelen adet değişiklikleri kullanıcı başına bellekteki bir oturumda
+ * birleştirilir, önce yerel günlüğe yazılır ve kısa aralıklarla toplu halde
+ * {@code carts}/{@code cart_items} tablolarına aktarılır.
+ * <p>
+ * Bir kullanıcıya ait tüm işlemler o kullanıcının oturum kilidi altında
+ * sıralanır. Günlük sıkıştırması yazma kilidini alır, diğer her şey okuma
+ * kilidiyle çalışır; böylece sıkıştırma veritabanına yazılmamış bir kaydı
+ * hiçbir zaman kaybetmez.
+ */
+@Service
+@Slf4j
+public class CartWriteBehindService {
+
+    private final boolean enabled;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path journalDirectory;
+    private final boolean fsync;
+    private final Duration idleTimeout;
+    private final long compactThresholdBytes;
+
+    private final Map<Long, CartSession> sessions = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private CartJournal journal;
+
+    public CartWriteBehindService(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.cart.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.cart.write-behind.journal-dir:data/cart-journal}") Path journalDirectory,
+            @Value("${app.cart.write-behind.fsync:true}") boolean fsync,
+            @Value("${app.cart.write-behind.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${app.cart.write-behind.compact-threshold-bytes:1048576}") long compactThresholdBytes) {
+        this.enabled = enabled;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.journalDirectory = journalDirectory;
+        this.fsync = fsync;
+        this.idleTimeout = idleTimeout;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Çağıranın işlemi geri alınsa bile aktarılan değişiklikler kalıcı olmalı
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new CartJournal(journalDirectory, fsync);
+        Map<Long, Map<Long, Integer>> pending = journal.replay();
+        if (!pending.isEmpty()) {
+            log.info("Sepet günlüğünden {} kullanıcının bekleyen değişiklikleri geri yükleniyor", pending.size());
+            pending.forEach(this::apply);
+        }
+        journal.rewrite(Map.of());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Bellekte açık oturumu olan kullanıcılar; sepetleri henüz yazılmamış değişiklik taşıyabilir. */
+    public Set<Long> activeUserIds() {
+        return Set.copyOf(sessions.keySet());
+    }
+
+    public void updateQuantity(User user, Long productId, int quantity) {
+        while (true) {
+            // Ürün kimlikleri kilitler dışında okunur; yavaş sorgu günlük sıkıştırmasını ve
+            // aynı haritadaki diğer kullanıcıları bekletmez
+            CartSession session = sessions.get(user.getId());
+            if (session == null) {
+                CartSession created = new CartSession(loadProductIds(user));
+                session = sessions.putIfAbsent(user.getId(), created);
+                if (session == null) {
+                    session = created;
+                }
+            }
+            Set<Long> reloaded = null;
+            if (!session.productIds.contains(productId)) {
+                // Oturum açıldıktan sonra sepete eklenmiş olabilir
+                reloaded = loadProductIds(user);
+                if (!reloaded.contains(productId)) {
+                    throw new IllegalArgumentException("Ürün sepette bulunamadı");
+                }
+            }
+
+            journalLock.readLock().lock();
+            try {
+                synchronized (session) {
+                    // Kilit beklenirken oturum aktarılıp kapatılmış olabilir; kapalı oturuma
+                    // yazılan değişiklik bir daha aktarılmaz, yeni oturumla yeniden denenir
+                    if (sessions.get(user.getId()) != session) {
+                        continue;
+                    }
+                    if (reloaded != null) {
+                        session.productIds = reloaded;
+                    }
+                    journal.appendQuantity(user.getId(), productId, quantity);
+                    session.pending.put(productId, quantity);
+                    session.lastAccess = System.nanoTime();
+                    return;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Sepet günlüğüne yazılamadı", e);
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        }
+    }
+
+    /** Henüz veritabanına yazılmamış adetleri sepet yanıtına uygular. */
+    public CartResponse overlay(User user, CartResponse response) {
+        CartSession session = sessions.get(user.getId());
+        if (session == null || response.getItems() == null) {
+            return response;
+        }
+        Map<Long, Integer> pending;
+        synchronized (session) {
+            if (session.pending.isEmpty()) {
+                return response;
+            }
+            pending = new HashMap<>(session.pending);
+        }
+        double totalPrice = 0.0;
+        for (CartResponse.CartItemResponse item : response.getItems()) {
+            Integer quantity = pending.get(item.getProductId());
+            if (quantity != null) {
+                item.setQuantity(quantity);
+                item.setTotalPrice(item.getPrice() * quantity);
+            }
+            totalPrice += item.getTotalPrice();
+        }
+        response.setTotalPrice(totalPrice);
+        return response;
+    }
+
+    /**
+     * Kullanıcının bekleyen değişikliklerini hemen yazar ve oturumu kapatır.
+     * Sepetin ürün kümesini değiştiren işlemlerden önce çağrılır.
+     */
+    public void flushAndEvict(User user) {
+        CartSession session = sessions.get(user.getId());
+        if (session == null) {
+            return;
+        }
+        journalLock.readLock().lock();
+        try {
+            synchronized (session) {
+                if (!flushSession(user.getId(), session)) {
+                    throw new IllegalStateException("Sepet değişiklikleri kaydedilemedi, lütfen tekrar deneyin");
+                }
+                sessions.remove(user.getId(), session);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval-ms:500}")
+    public void flushDirty() {
+        if (!enabled) {
+            return;
+        }
+        long idleNanos = idleTimeout.toNanos();
+        journalLock.readLock().lock();
+        try {
+            sessions.forEach((userId, session) -> {
+                synchronized (session) {
+                    flushSession(userId, session);
+                    if (session.pending.isEmpty() && System.nanoTime() - session.lastAccess > idleNanos) {
+                        sessions.remove(userId, session);
+                    }
+                }
+            });
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        compactIfNeeded();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flushDirty();
+        journal.close();
+    }
+
+    private boolean flushSession(Long userId, CartSession session) {
+        if (session.pending.isEmpty()) {
+            return true;
+        }
+        Map<Long, Integer> changes = new LinkedHashMap<>(session.pending);
+        try {
+            apply(userId, changes);
+            session.pending.clear();
+            journal.appendFlushed(userId);
+            return true;
+        } catch (Exception e) {
+            // Kayıtlar günlükte ve bellekte kalır, bir sonraki turda yeniden denenir
+            log.warn("Sepet değişiklikleri veritabanına yazılamadı, kullanıcı: {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void apply(Long userId, Map<Long, Integer> changes) {
+        boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                cartRepository.findByUserWithItems(userRepository.getReferenceById(userId)).map(cart -> {
+                    for (CartItem item : cart.getItems()) {
+                        Integer quantity = changes.get(item.getProduct().getId());
+                        if (quantity != null) {
+                            item.setQuantity(quantity);
+                            item.updatePrices();
+                        }
+                    }
+                    cart.calculateTotalPrice();
+                    cartRepository.save(cart);
+                    return true;
+                }).orElse(false)));
+        if (!applied) {
+            // Sepet bu arada silinmiş (ör. boşta sepet temizliği); yazılacak satır kalmadı
+            log.warn("Sepet bulunamadı, bekleyen {} ürün değişikliği atıldı, kullanıcı: {}", changes.size(), userId);
+            return;
+        }
+        log.debug("Sepet değişiklikleri yazıldı, kullanıcı: {}, {} ürün", userId, changes.size());
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (journal.size() < compactThresholdBytes) {
+                return;
+            }
+            journalLock.writeLock().lock();
+            try {
+                Map<Long, Map<Long, Integer>> pending = new HashMap<>();
+                sessions.forEach((userId, session) -> {
+                    if (!session.pending.isEmpty()) {
+                        pending.put(userId, new LinkedHashMap<>(session.pending));
+                    }
+                });
+                journal.rewrite(pending);
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            log.error("Sepet günlüğü sıkıştırılamadı: {}", e.getMessage(), e);
+        }
+    }
+
+    private Set<Long> loadProductIds(User user) {
+        return new HashSet<>(cartItemRepository.findProductIdsByUser(user));
+    }
+
+    private static final class CartSession {
+        private volatile Set<Long> productIds;
+        private final Map<Long, Integer> pending = new LinkedHashMap<>();
+        private volatile long lastAccess = System.nanoTime();
+
+        private CartSession(Set<Long> productIds) {
+            this.productIds = productIds;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+
+import java.util.List;
+
+/**
+ * Katalog değişikliklerini {@link CatalogOutboxRelay} üzerinden alan türetilmiş yapı.
+ * Değişiklikler bu düğümde ya da başka bir düğümde yapılmış olabilir.
+ */
+public interface CatalogChangeSubscriber {
+
+    /**
+     * Commit edilmiş değişiklikler outbox sırasıyla, toplu olarak gelir. En az bir
+     * kez teslim edilir: hata fırlatılırsa aynı değişiklikler yeniden gönderilir,
+     * bu yüzden uygulama tekrarlara dayanıklı olmalıdır.
+     */
+    void onCatalogChanges(List<ProductChangedEvent> changes);
+
+    /**
+     * Bazı değişiklikler teslim edilemediğinde (süresi dolan id boşluğu ya da
+     * okunamayan satır) çağrılır; yapı veritabanından baştan yüklenmelidir.
+     * Hata fırlatılırsa bir sonraki turda yeniden çağrılır.
+     */
+    void onChangesMissed();
+}
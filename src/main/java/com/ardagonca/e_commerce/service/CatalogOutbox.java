@@ -0,0 +1,66 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Ürün yazmalarını commit'ten hemen önce, aynı işlem içinde {@code catalog_outbox}
+ * tablosuna ekler. Değişiklik ya ürünle birlikte kalıcı olur ya da hiç yazılmaz.
+ * {@code ProductService} ve {@code AdminService} yazmaları buradan tek yerden kaydedilir.
+ */
+@Service
+public class CatalogOutbox {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO catalog_outbox (origin, event_type, product_id, payload, previous_price, previous_stock, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /** Satırı yazan düğüm; aktarıcı kendi satırlarını başka düğümlerinkinden bununla ayırır. */
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CatalogOutbox(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+    }
+
+    // İşlem dışında yayınlanan olaylar kaydedilmez; tüm ürün yazmaları işlem içindedir
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        jdbcTemplate.update(INSERT_SQL,
+                nodeId,
+                event.getType().name(),
+                event.getProductId(),
+                toJson(event),
+                event.getPreviousPrice(),
+                event.getPreviousStock(),
+                Timestamp.from(Instant.now()));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private String toJson(ProductChangedEvent event) {
+        if (event.getProduct() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(event.getProduct());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ürün outbox için serileştirilemedi: " + event.getProductId(), e);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code catalog_outbox} satırlarını id sırasıyla, toplu olarak okuyup
+ * {@link CatalogChangeSubscriber}'lara dağıtır. Her düğüm kendi aktarıcısını
+ * çalıştırır; böylece başka düğümlerdeki yazmalar da yerel yapılara ulaşır.
+ * <p>
+ * Her abone için ayrı bir kontrol noktası (son teslim edilen id) tutulur ve
+ * yalnızca abone hatasız döndükten sonra ilerletilir; hata veren aboneye aynı
+ * satırlar bir sonraki turda yeniden gönderilir. Aboneler bellekteki yapılar
+ * olduğundan ve açılışta veritabanından yüklendiğinden kontrol noktaları da
+ * bellekte tutulur.
+ * <p>
+ * Kimlikler ekleme anında alınır, commit sırası farklı olabilir: okunan satırlar
+ * arasında boşluk varsa aktarım boşlukta durur, daha uzun süren işlemin commit'i
+ * beklenir. Boşluk {@code gap-timeout} sonra da dolmazsa geri alınmış işlem
+ * sayılıp atlanır. Okunamayan satırlar da atlanır. Her iki durumda da aboneler
+ * {@link CatalogChangeSubscriber#onChangesMissed()} ile veritabanından yeniden
+ * yüklenir; atlanan işlem sonradan commit edilirse değişikliği bir sonraki tam
+ * yüklemeye kadar türetilmiş yapılara yansımaz.
+ * <p>
+ * Yerel commit'ler ve başka düğümlerden gelen bildirimler aktarıcıyı hemen
+ * uyandırır; {@code poll-interval-ms} yalnızca üst sınırdır.
+ */
+@Service
+@Slf4j
+public class CatalogOutboxRelay {
+
+    private static final String SELECT_SQL = """
+            SELECT id, origin, event_type, product_id, payload, previous_price, previous_stock
+              FROM catalog_outbox
+             WHERE id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<CatalogChangeSubscriber> subscribers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+    private final Counter dispatched;
+    private final Counter gapsSkipped;
+    private final Counter unreadableRows;
+    private final String nodeId;
+
+    /** Abone sırasıyla son teslim edilen id; yalnızca aktarıcı iş parçacığından erişilir. */
+    private final long[] checkpoints;
+    /** Abone sırasıyla tam yükleme bekleyenler; yalnızca aktarıcı iş parçacığından erişilir. */
+    private final boolean[] reloadPending;
+    private long gapId = -1;
+    private long gapSeenAt;
+    private long lastUnreadableId;
+
+    private final Object wakeUpLock = new Object();
+    private boolean wakeUpRequested;
+    private volatile boolean running;
+    private Thread relayThread;
+
+    public CatalogOutboxRelay(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            CatalogOutbox catalogOutbox,
+            List<CatalogChangeSubscriber> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:500}") int batchSize,
+            @Value("${app.outbox.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${app.outbox.gap-timeout:10s}") Duration gapTimeout,
+            @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.nodeId = catalogOutbox.getNodeId();
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.retention = retention;
+        this.checkpoints = new long[subscribers.size()];
+        this.reloadPending = new boolean[subscribers.size()];
+        this.dispatched = Counter.builder("catalog.outbox.dispatched")
+                .description("Abonelere dağıtılan outbox satırları")
+                .register(meterRegistry);
+        this.gapsSkipped = Counter.builder("catalog.outbox.gaps.skipped")
+                .description("Süresi içinde dolmayıp atlanan id boşlukları")
+                .register(meterRegistry);
+        this.unreadableRows = Counter.builder("catalog.outbox.unreadable")
+                .description("Okunamadığı için atlanan outbox satırları")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aboneler açılışta tam yüklemelerini {@code ApplicationReadyEvent} ile yapar;
+     * başlangıç noktası bundan önce alınır ki arada commit edilen değişiklik kaçmasın.
+     * Son {@code gap-timeout} içindeki satırlar yeniden gönderilir, o sırada süren
+     * işlemler de boşluk olarak beklenir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        Long start = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM catalog_outbox WHERE created_at < ?", Long.class,
+                Timestamp.from(Instant.now().minusNanos(gapTimeoutNanos)));
+        Arrays.fill(checkpoints, start);
+        running = true;
+        relayThread = new Thread(this::run, "catalog-outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+        log.info("Katalog outbox aktarıcısı başladı: {} abone, id {} sonrası", subscribers.size(), start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (relayThread != null) {
+            relayThread.interrupt();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        wakeUp();
+    }
+
+    /** Yeni satır olduğu bilindiğinde bir sonraki turu beklemeden başlatır. */
+    public void wakeUp() {
+        synchronized (wakeUpLock) {
+            wakeUpRequested = true;
+            wakeUpLock.notifyAll();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = jdbcTemplate.update("DELETE FROM catalog_outbox WHERE created_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        if (deleted > 0) {
+            log.debug("{} eski outbox satırı silindi", deleted);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            boolean more;
+            try {
+                more = relayBatch();
+            } catch (RuntimeException e) {
+                log.warn("Katalog outbox okunamadı, sonraki turda yeniden denenecek: {}", e.getMessage());
+                more = false;
+            }
+            if (!more && !awaitWakeUp()) {
+                return;
+            }
+        }
+    }
+
+    private boolean awaitWakeUp() {
+        synchronized (wakeUpLock) {
+            try {
+                if (!wakeUpRequested) {
+                    wakeUpLock.wait(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            wakeUpRequested = false;
+            return running;
+        }
+    }
+
+    /** @return tam bir toplu okuma yapıldıysa, yani beklemeden devam edilmesi gerekiyorsa {@code true} */
+    private boolean relayBatch() {
+        boolean more = dispatchBatch();
+        reloadMissed();
+        return more;
+    }
+
+    private boolean dispatchBatch() {
+        long from = Long.MAX_VALUE;
+        for (long checkpoint : checkpoints) {
+            from = Math.min(from, checkpoint);
+        }
+        List<Row> rows = jdbcTemplate.query(SELECT_SQL, this::mapRow, from, batchSize);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        // Boşluğa kadar olan kesintisiz kısım teslim edilir
+        long expected = from + 1;
+        int end = 0;
+        while (end < rows.size()) {
+            long id = rows.get(end).id();
+            if (id != expected) {
+                if (!gapExpired(expected, id)) {
+                    break;
+                }
+                Arrays.fill(reloadPending, true);
+            }
+            expected = id + 1;
+            end++;
+        }
+        if (end == 0) {
+            return false;
+        }
+
+        List<Row> ready = rows.subList(0, end);
+        long last = ready.get(end - 1).id();
+        for (int i = 0; i < subscribers.size(); i++) {
+            List<ProductChangedEvent> changes = new ArrayList<>(ready.size());
+            for (Row row : ready) {
+                if (row.id() <= checkpoints[i]) {
+                    continue;
+                }
+                if (row.event() != null) {
+                    changes.add(row.event());
+                } else {
+                    reloadPending[i] = true;
+                }
+            }
+            if (changes.isEmpty()) {
+                checkpoints[i] = Math.max(checkpoints[i], last);
+                continue;
+            }
+            try {
+                subscribers.get(i).onCatalogChanges(changes);
+                checkpoints[i] = last;
+            } catch (RuntimeException e) {
+                log.warn("{} katalog değişikliklerini uygulayamadı, yeniden denenecek: {}",
+                        subscribers.get(i).getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+        dispatched.increment(end);
+        return end == batchSize;
+    }
+
+    private void reloadMissed() {
+        for (int i = 0; i < subscribers.size(); i++) {
+            if (!reloadPending[i]) {
+                continue;
+            }
+            try {
+                subscribers.get(i).onChangesMissed();
+                reloadPending[i] = false;
+            } catch (RuntimeException e) {
+                log.warn("{} yeniden yüklenemedi, yeniden denenecek: {}",
+                        subscribers.get(i).getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean gapExpired(long missingFrom, long nextId) {
+        if (gapId != missingFrom) {
+            gapId = missingFrom;
+            gapSeenAt = System.nanoTime();
+            return false;
+        }
+        if (System.nanoTime() - gapSeenAt < gapTimeoutNanos) {
+            return false;
+        }
+        log.debug("Outbox id {}-{} gelmedi, geri alınmış sayılıyor", missingFrom, nextId - 1);
+        gapsSkipped.increment();
+        gapId = -1;
+        return true;
+    }
+
+    /** Okunamayan satır aktarımı durdurmaz; olayı {@code null} döner ve abonelere yeniden yükleme gerektirir. */
+    private Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long id = rs.getLong("id");
+        try {
+            ProductChangedEvent.Type type = ProductChangedEvent.Type.valueOf(rs.getString("event_type"));
+            String payload = rs.getString("payload");
+            Product product = payload != null ? objectMapper.readValue(payload, Product.class) : null;
+            Double previousPrice = rs.getObject("previous_price", Double.class);
+            Integer previousStock = rs.getObject("previous_stock", Integer.class);
+            return new Row(id, new ProductChangedEvent(type, rs.getLong("product_id"), product,
+                    previousPrice, previousStock, !nodeId.equals(rs.getString("origin"))));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // Geride kalan abonelere teslim edilirken yeniden okunur; bir kez sayılır
+            if (id > lastUnreadableId) {
+                lastUnreadableId = id;
+                unreadableRows.increment();
+                log.error("Outbox satırı {} okunamadı, atlanıyor: {}", id, e.getMessage());
+            }
+            return new Row(id, null);
+        }
+    }
+
+    private record Row(long id, ProductChangedEvent event) {
+    }
+}
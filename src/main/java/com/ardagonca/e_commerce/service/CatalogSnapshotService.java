@@ -0,0 +1,261 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ürün listesini katalog her değiştiğinde bir kez JSON'a çevirip hem düz hem
+ * gzip'li olarak bellekte tutar. Sayfa (segment) gövdeleri de ayrı ayrı hazırlanır.
+ * <p>
+ * Eskiyi sunarken yenile: katalog değiştiğinde istekler beklemez, son iyi anlık
+ * görüntüyü almaya devam eder; yenisi arka planda tek bir iş parçacığında hazırlanır.
+ * Yenileme başarısız olursa (ör. veritabanı devre kesicisi açıkken) eski görüntü
+ * sunulmaya devam eder ve {@code retry-interval} sonra yeniden denenir. Yalnızca
+ * hiç görüntü yokken (ilk açılış) istek yenilemeyi bekler.
+ * <p>
+ * Outbox'tan gelen değişiklikler son görüntünün ürünlerine uygulanır; katalog
+ * yeniden okunmaz. Tam okuma yalnızca ilk açılışta ve {@link #invalidate()} ile yapılır.
+ * Bu düğümdeki yazmalar da görüntüye outbox üzerinden ulaşır; o zamana kadar eski
+ * görüntü kendi ETag'iyle sunulur. Her yeni görüntü öncekinden büyük bir sürüm alır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService implements CatalogChangeSubscriber {
+
+    private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.catalog.snapshot.page-size:50}")
+    private int pageSize;
+
+    @Value("${app.catalog.snapshot.retry-interval:2s}")
+    private Duration retryInterval;
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long nextAttemptNanos = System.nanoTime();
+    private final List<ProductChangedEvent> pendingChanges = new ArrayList<>();
+    private volatile boolean fullRebuildRequested;
+    /** Uygulanmamış değişiklik ya da tam okuma isteği var. */
+    private volatile boolean dirty;
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            if (dirty) {
+                // Başarısız yenileme retry-interval sonra burada yeniden denenir
+                refreshAsync();
+            }
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                current = build(catalogVersion.current(), loadProducts());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /** Son iyi anlık görüntüdeki ürün; veritabanına gidilemezken yedek olarak kullanılır. */
+    public Product lastKnownProduct(Long id) {
+        Snapshot current = snapshot;
+        return current != null ? current.products().get(id) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (RuntimeException e) {
+            log.warn("Katalog anlık görüntüsü açılışta hazırlanamadı: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onCatalogChanges(List<ProductChangedEvent> changes) {
+        if (snapshot == null) {
+            // İlk görüntü değişikliği zaten veritabanından okuyacak
+            return;
+        }
+        synchronized (pendingChanges) {
+            pendingChanges.addAll(changes);
+        }
+        dirty = true;
+        refreshAsync();
+    }
+
+    @Override
+    public void onChangesMissed() {
+        invalidate();
+    }
+
+    /** Hangi ürünlerin değiştiği bilinmediğinde görüntüyü veritabanından yeniden oluşturur. */
+    public void invalidate() {
+        fullRebuildRequested = true;
+        dirty = true;
+        refreshAsync();
+    }
+
+    private void refreshAsync() {
+        if (System.nanoTime() - nextAttemptNanos < 0 || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(this::refresh);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private void refresh() {
+        try {
+            Snapshot current = snapshot;
+            boolean full = fullRebuildRequested;
+            fullRebuildRequested = false;
+            dirty = false;
+            List<ProductChangedEvent> changes;
+            synchronized (pendingChanges) {
+                changes = new ArrayList<>(pendingChanges);
+                pendingChanges.clear();
+            }
+            if (current == null || full || !changes.isEmpty()) {
+                Snapshot built;
+                try {
+                    // Tam okuma, o ana kadar commit edilmiş bekleyen değişiklikleri de içerir
+                    built = current == null || full
+                            ? build(nextVersion(current), loadProducts())
+                            : build(nextVersion(current), applyChanges(current, changes));
+                } catch (RuntimeException e) {
+                    fullRebuildRequested |= full;
+                    synchronized (pendingChanges) {
+                        pendingChanges.addAll(0, changes);
+                    }
+                    dirty = true;
+                    throw e;
+                }
+                synchronized (this) {
+                    if (snapshot == null || snapshot.version() <= built.version()) {
+                        snapshot = built;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            nextAttemptNanos = System.nanoTime() + retryInterval.toNanos();
+            log.warn("Katalog anlık görüntüsü yenilenemedi, eski görüntü sunulmaya devam ediyor: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+        // Yenileme sürerken gelen değişiklikler
+        if (dirty) {
+            refreshAsync();
+        }
+    }
+
+    /** Aynı ETag iki farklı gövdeye verilmesin diye sürüm sayılmış değişiklik yoksa da ilerletilir. */
+    private long nextVersion(Snapshot current) {
+        long version = catalogVersion.current();
+        return current == null || version > current.version() ? version : catalogVersion.advance();
+    }
+
+    private List<Product> loadProducts() {
+        // Katalog bölmesinde çalışır; yenileme de istekler gibi bağlantı havuzundan pay alır
+        List<Product> products = new ArrayList<>(productService.getAllProductsFromPrimary());
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    private static List<Product> applyChanges(Snapshot current, List<ProductChangedEvent> changes) {
+        Map<Long, Product> byId = new HashMap<>(current.products());
+        for (ProductChangedEvent change : changes) {
+            if (change.getType() == ProductChangedEvent.Type.DELETED || change.getProduct() == null) {
+                byId.remove(change.getProductId());
+            } else {
+                byId.put(change.getProductId(), change.getProduct());
+            }
+        }
+        List<Product> products = new ArrayList<>(byId.values());
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    private Snapshot build(long version, List<Product> products) {
+        long start = System.nanoTime();
+        int pageCount = (products.size() + pageSize - 1) / pageSize;
+        Body[] pages = new Body[pageCount];
+        for (int page = 0; page < pageCount; page++) {
+            int from = page * pageSize;
+            pages[page] = render(products.subList(from, Math.min(from + pageSize, products.size())));
+        }
+
+        Map<Long, Product> byId = new HashMap<>(products.size() * 4 / 3 + 1);
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+        }
+
+        Snapshot built = new Snapshot(version, catalogVersion.catalogEtag(version), products.size(),
+                render(products), pages, render(List.of()), Map.copyOf(byId));
+        log.debug("Katalog anlık görüntüsü oluşturuldu: sürüm {}, {} ürün, {} sayfa, {} ms",
+                version, products.size(), pageCount, (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private Body render(List<Product> products) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new Body(json, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Katalog serileştirilemedi", e);
+        }
+    }
+
+    public record Body(byte[] identity, byte[] gzip) {
+
+        public byte[] encoded(boolean gzipAccepted) {
+            return gzipAccepted ? gzip : identity;
+        }
+    }
+
+    public record Snapshot(long version, String etag, int totalCount, Body all, Body[] pages, Body emptyPage,
+                           Map<Long, Product> products) {
+
+        public Body page(int page) {
+            return page >= 0 && page < pages.length ? pages[page] : emptyPage;
+        }
+    }
+}
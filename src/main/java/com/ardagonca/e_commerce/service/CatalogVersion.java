@@ -0,0 +1,89 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Katalog ve ürün bazında değişiklik sayaçları. Sayaçlar commit sonrasında
+ * artırılır; böylece okunan veri hiçbir zaman verdiği sürümden eski olmaz.
+ * <p>
+ * Bu düğümdeki yazmalar commit'in hemen ardından sayılır, outbox aktarıcısını
+ * beklemez. Aktarıcıdan yalnızca başka düğümlerin değişiklikleri sayılır; bunlar
+ * diğer abonelerden önce gelir, anlık görüntü yeni sürümle oluşturulur.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CatalogVersion implements CatalogChangeSubscriber {
+
+    // Yeniden başlatmada sayaçlar sıfırlanır; eski ETag'ler bu önekle geçersiz kalır
+    private final String startEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong resets = new AtomicLong();
+    private volatile String epoch = startEpoch;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        increment(event);
+    }
+
+    @Override
+    public void onCatalogChanges(List<ProductChangedEvent> changes) {
+        for (ProductChangedEvent event : changes) {
+            if (event.isRemote()) {
+                increment(event);
+            }
+        }
+    }
+
+    @Override
+    public void onChangesMissed() {
+        resetAll();
+    }
+
+    /** Sayılmış bir değişiklik olmadan içeriği değişen anlık görüntüler için yeni bir katalog sürümü verir. */
+    public long advance() {
+        return version.incrementAndGet();
+    }
+
+    private void increment(ProductChangedEvent event) {
+        long next = version.incrementAndGet();
+        if (event.getProductId() != null) {
+            productVersions.put(event.getProductId(), next);
+        }
+    }
+
+    /**
+     * Tek tek hangi ürünlerin değiştiği bilinmediğinde (ör. başka düğümden
+     * kaçırılan bildirimler) tüm katalog ve ürün ETag'lerini geçersiz kılar.
+     */
+    public void resetAll() {
+        epoch = startEpoch + "r" + resets.incrementAndGet();
+        productVersions.clear();
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String catalogEtag() {
+        return catalogEtag(version.get());
+    }
+
+    public String catalogEtag(long catalogVersion) {
+        return "W/\"c-" + epoch + "-" + catalogVersion + "\"";
+    }
+
+    public String productEtag(Long productId) {
+        return "W/\"p-" + epoch + "-" + productId + "-" + productVersions.getOrDefault(productId, 0L) + "\"";
+    }
+}
@@ -0,0 +1,259 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.event.PromotionsChangedEvent;
+import com.ardagonca.e_commerce.event.UserChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PostgreSQL {@code LISTEN/NOTIFY} ile düğümler arası önbellek geçersizleştirme.
+ * <p>
+ * Ürün, kullanıcı ve promosyon yazmaları commit'ten hemen önce, aynı işlem içinde
+ * {@code cache_versions} satırının sürümünü artırır ve {@code pg_notify} gönderir;
+ * PostgreSQL bildirimi yalnızca commit olursa ve commit sırasıyla iletir.
+ * <p>
+ * Her düğüm havuz dışındaki ayrı bir bağlantıda kanalı dinler ve gelen değişikliği
+ * {@link LocalCacheInvalidator} ile uygular. Sürüm atlaması görülürse ya da bağlantı
+ * koptuktan sonra, ve ayrıca her {@code reconcile-interval} sürede, yerel sürümler
+ * tablodakilerle karşılaştırılır; geride kalan önbellekler tamamen yenilenir.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache-invalidation.enabled", havingValue = "true")
+@Slf4j
+public class ClusterCacheInvalidator {
+
+    static final String CHANNEL = "cache_invalidation";
+    static final String PRODUCT = "product";
+    static final String USER = "user";
+    static final String PROMOTION = "promotion";
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final LocalCacheInvalidator localCacheInvalidator;
+    private final long pollTimeoutMillis;
+    private final long reconcileIntervalNanos;
+    private final long reconnectDelayMillis;
+
+    /** Yalnızca dinleyici iş parçacığından erişilir. */
+    private final Map<String, Long> seenVersions = new HashMap<>();
+    /** Bir önceki karşılaştırmada geride görülen sürümler; yoldaki bildirimlere bir tur süre tanınır. */
+    private final Map<String, Long> laggingVersions = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterCacheInvalidator(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            LocalCacheInvalidator localCacheInvalidator,
+            @Value("${app.cache-invalidation.poll-timeout-ms:500}") long pollTimeoutMillis,
+            @Value("${app.cache-invalidation.reconcile-interval:30s}") Duration reconcileInterval,
+            @Value("${app.cache-invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dataSourceProperties = dataSourceProperties;
+        this.localCacheInvalidator = localCacheInvalidator;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconcileIntervalNanos = reconcileInterval.toNanos();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        notifyChange(PRODUCT, event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        notifyChange(USER, event.getUserId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPromotionsChanged(PromotionsChangedEvent event) {
+        notifyChange(PROMOTION, event.promotionId());
+    }
+
+    private void notifyChange(String name, Long id) {
+        if (LocalCacheInvalidator.isApplyingRemote()) {
+            return;
+        }
+        // Satır kilidi commit'e kadar tutulur; sürümler commit sırasıyla artar
+        Long version = jdbcTemplate.queryForObject(
+                "UPDATE cache_versions SET version = version + 1 WHERE name = ? RETURNING version", Long.class, name);
+        String payload = nodeId + "|" + name + "|" + (id != null ? id : "") + "|" + version;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSet rs) -> null, CHANNEL, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Önbellek geçersizleştirme kanalı dinleniyor (düğüm {})", nodeId);
+                // Bağlantı yokken kaçırılanlar hemen, beklemeden yenilenir
+                reconcile(connection, true);
+                long nextReconcile = System.nanoTime() + reconcileIntervalNanos;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.nanoTime() - nextReconcile >= 0) {
+                        reconcile(connection, false);
+                        nextReconcile = System.nanoTime() + reconcileIntervalNanos;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Önbellek geçersizleştirme dinleyicisi koptu, {} ms sonra yeniden bağlanılacak: {}",
+                        reconnectDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4) {
+            log.warn("Geçersiz önbellek bildirimi: {}", payload);
+            return;
+        }
+        String origin = parts[0];
+        String name = parts[1];
+        Long id = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+        long version = Long.parseLong(parts[3]);
+
+        Long seen = seenVersions.get(name);
+        if (seen != null && version <= seen) {
+            // Karşılaştırma sırasında zaten uygulanmış
+            return;
+        }
+
+        if (seen != null && version > seen + 1) {
+            if (!invalidateAll(name)) {
+                return;
+            }
+        } else if (!nodeId.equals(origin)) {
+            try {
+                apply(name, id, version);
+            } catch (RuntimeException e) {
+                log.warn("Uzak değişiklik uygulanamadı, {} önbelleği tümden temizleniyor: {}", name, e.getMessage());
+                if (!invalidateAll(name)) {
+                    return;
+                }
+            }
+        }
+        // Yalnızca yerel uygulama başarılı olduktan sonra ilerletilir
+        seenVersions.put(name, version);
+        laggingVersions.remove(name);
+    }
+
+    private void apply(String name, Long id, long version) {
+        log.debug("Uzak değişiklik uygulanıyor: {} {} (sürüm {})", name, id, version);
+        switch (name) {
+            case PRODUCT -> localCacheInvalidator.productChanged(id);
+            case USER -> localCacheInvalidator.userChanged(id);
+            case PROMOTION -> localCacheInvalidator.promotionsChanged(id);
+            default -> log.warn("Bilinmeyen önbellek adı: {}", name);
+        }
+    }
+
+    /**
+     * @return önbellek temizlendiyse {@code true}; değilse görülen sürüm ilerletilmez
+     * ve bir sonraki karşılaştırma yeniden dener
+     */
+    private boolean invalidateAll(String name) {
+        try {
+            localCacheInvalidator.invalidateAll(name);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("{} önbelleği temizlenemedi: {}", name, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void reconcile(Connection connection, boolean immediate) throws SQLException {
+        Map<String, Long> current = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name, version FROM cache_versions")) {
+            while (rs.next()) {
+                current.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        current.forEach((name, version) -> {
+            Long seen = seenVersions.get(name);
+            if (seen == null) {
+                // İlk bağlantı: önbellekler zaten veritabanından dolduruluyor
+                seenVersions.put(name, version);
+                return;
+            }
+            if (version <= seen) {
+                laggingVersions.remove(name);
+                return;
+            }
+            Long lagging = laggingVersions.get(name);
+            if (immediate || (lagging != null && seen < lagging)) {
+                if (invalidateAll(name)) {
+                    seenVersions.put(name, version);
+                    laggingVersions.remove(name);
+                }
+            } else {
+                laggingVersions.put(name, version);
+            }
+        });
+    }
+}
@@ -0,0 +1,266 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.ProductSearchResponse;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.ProductRepository;
+import com.ardagonca.e_commerce.repository.projection.ProductSummaryView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fiyat aralığı ve fiyata göre sıralı listeleme için sütunlu katalog.
+ * <p>
+ * Ürünler id sırasında ilkel dizilerde ({@code long[] ids}, {@code double[] prices},
+ * {@code String[] names}) tutulur; {@code byPrice} dizisi bu satırları
+ * (fiyat, id) sırasına dizen permütasyondur. Sorgular permütasyon üzerinde
+ * ikili arama yapar ve yalnızca dönen sayfa kadar nesne üretir.
+ * <p>
+ * Her yazma yeni bir değişmez {@link Columns} yayımlar; okuyucular kilit almaz.
+ */
+@Service
+@Slf4j
+public class ColumnarCatalog implements CatalogChangeSubscriber {
+
+    private static final Columns EMPTY = new Columns(new long[0], new double[0], new String[0], new int[0]);
+
+    private final ProductRepository productRepository;
+    private final int loadChunkSize;
+
+    private volatile Columns columns = EMPTY;
+    private boolean loaded;
+
+    public ColumnarCatalog(
+            ProductRepository productRepository,
+            @Value("${app.catalog.columnar.load-chunk-size:10000}") int loadChunkSize) {
+        this.productRepository = productRepository;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Bulkhead("catalog")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        int size = 0;
+        long[] ids = new long[1024];
+        double[] prices = new double[1024];
+        String[] names = new String[1024];
+
+        long afterId = 0;
+        List<ProductSummaryView> chunk;
+        do {
+            chunk = productRepository.findSummariesAfter(afterId, Limit.of(loadChunkSize));
+            if (size + chunk.size() > ids.length) {
+                int capacity = Math.max(ids.length * 2, size + chunk.size());
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            for (ProductSummaryView view : chunk) {
+                ids[size] = view.getId();
+                prices[size] = view.getPrice();
+                names[size] = view.getName().intern();
+                size++;
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == loadChunkSize);
+
+        ids = Arrays.copyOf(ids, size);
+        prices = Arrays.copyOf(prices, size);
+        names = Arrays.copyOf(names, size);
+        int[] byPrice = new int[size];
+        for (int i = 0; i < size; i++) {
+            byPrice[i] = i;
+        }
+        sortByPrice(byPrice, prices);
+
+        columns = new Columns(ids, prices, names, byPrice);
+        loaded = true;
+        log.info("Sütunlu katalog oluşturuldu: {} ürün, {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void onCatalogChanges(List<ProductChangedEvent> changes) {
+        if (!loaded) {
+            // İlk yükleme değişikliği zaten veritabanından okuyacak
+            return;
+        }
+        Columns next = columns;
+        for (ProductChangedEvent event : changes) {
+            int row = Arrays.binarySearch(next.ids, event.getProductId());
+            if (row >= 0) {
+                next = next.remove(row);
+            }
+            Product product = event.getProduct();
+            if (event.getType() != ProductChangedEvent.Type.DELETED && product != null) {
+                next = next.insert(product.getId(), product.getPrice(), product.getName().intern());
+            }
+        }
+        // Toplu değişiklik tek yayında görünür
+        columns = next;
+    }
+
+    @Override
+    @Bulkhead("catalog")
+    public void onChangesMissed() {
+        rebuild();
+    }
+
+    public int size() {
+        return columns.ids.length;
+    }
+
+    public ProductSearchResponse search(double minPrice, double maxPrice, boolean descending, int page, int pageSize) {
+        Columns snapshot = columns;
+        int from = snapshot.lowerBound(minPrice);
+        int to = snapshot.upperBound(maxPrice);
+        int total = Math.max(0, to - from);
+
+        long offset = (long) page * pageSize;
+        int count = (int) Math.max(0, Math.min(pageSize, total - offset));
+        List<ProductSearchResponse.Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int rank = descending ? to - 1 - (int) offset - i : from + (int) offset + i;
+            int row = snapshot.byPrice[rank];
+            items.add(new ProductSearchResponse.Item(snapshot.ids[row], snapshot.names[row], snapshot.prices[row]));
+        }
+        return ProductSearchResponse.builder()
+                .total(total)
+                .page(page)
+                .size(pageSize)
+                .items(items)
+                .build();
+    }
+
+    /** Kararlı birleştirme sıralaması; satırlar id sırasında olduğundan eşit fiyatlar id'ye göre kalır. */
+    private static void sortByPrice(int[] rows, double[] prices) {
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int left = 0; left < rows.length - width; left += 2 * width) {
+                int mid = left + width;
+                int right = Math.min(left + 2 * width, rows.length);
+                int i = left, j = mid, k = left;
+                while (i < mid && j < right) {
+                    buffer[k++] = prices[rows[j]] < prices[rows[i]] ? rows[j++] : rows[i++];
+                }
+                while (i < mid) {
+                    buffer[k++] = rows[i++];
+                }
+                while (j < right) {
+                    buffer[k++] = rows[j++];
+                }
+                System.arraycopy(buffer, left, rows, left, right - left);
+            }
+        }
+    }
+
+    private record Columns(long[] ids, double[] prices, String[] names, int[] byPrice) {
+
+        /** Fiyatı {@code price} değerinden küçük olmayan ilk sıra. */
+        int lowerBound(double price) {
+            int lo = 0, hi = byPrice.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[byPrice[mid]] < price) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** Fiyatı {@code price} değerinden büyük olan ilk sıra. */
+        int upperBound(double price) {
+            int lo = 0, hi = byPrice.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[byPrice[mid]] <= price) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** (fiyat, id) sırasındaki yerleştirme noktası. */
+        private int rankOf(double price, long id) {
+            int lo = 0, hi = byPrice.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int row = byPrice[mid];
+                if (prices[row] < price || (prices[row] == price && ids[row] < id)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        Columns insert(long id, double price, String name) {
+            int n = ids.length;
+            int row = -(Arrays.binarySearch(ids, id) + 1);
+            long[] newIds = new long[n + 1];
+            double[] newPrices = new double[n + 1];
+            String[] newNames = new String[n + 1];
+            System.arraycopy(ids, 0, newIds, 0, row);
+            System.arraycopy(prices, 0, newPrices, 0, row);
+            System.arraycopy(names, 0, newNames, 0, row);
+            newIds[row] = id;
+            newPrices[row] = price;
+            newNames[row] = name;
+            System.arraycopy(ids, row, newIds, row + 1, n - row);
+            System.arraycopy(prices, row, newPrices, row + 1, n - row);
+            System.arraycopy(names, row, newNames, row + 1, n - row);
+
+            int rank = rankOf(price, id);
+            int[] newByPrice = new int[n + 1];
+            for (int i = 0, j = 0; i <= n; i++) {
+                if (i == rank) {
+                    newByPrice[i] = row;
+                } else {
+                    int r = byPrice[j++];
+                    newByPrice[i] = r >= row ? r + 1 : r;
+                }
+            }
+            return new Columns(newIds, newPrices, newNames, newByPrice);
+        }
+
+        Columns remove(int row) {
+            int n = ids.length;
+            int rank = rankOf(prices[row], ids[row]);
+            long[] newIds = new long[n - 1];
+            double[] newPrices = new double[n - 1];
+            String[] newNames = new String[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, row);
+            System.arraycopy(prices, 0, newPrices, 0, row);
+            System.arraycopy(names, 0, newNames, 0, row);
+            System.arraycopy(ids, row + 1, newIds, row, n - row - 1);
+            System.arraycopy(prices, row + 1, newPrices, row, n - row - 1);
+            System.arraycopy(names, row + 1, newNames, row, n - row - 1);
+
+            int[] newByPrice = new int[n - 1];
+            for (int i = 0, j = 0; i < n; i++) {
+                if (i == rank) {
+                    continue;
+                }
+                int r = byPrice[i];
+                newByPrice[j++] = r > row ? r - 1 : r;
+            }
+            return new Columns(newIds, newPrices, newNames, newByPrice);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ardagonca.e_commerce.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Giriş yapmamış kullanıcının yalnızca bellekte tutulan sepeti
+ * (ürün id -> adet). Veritabanına hiç yazılmaz.
+ */
+public class GuestCart {
+
+    private final String id;
+    private final int maxItems;
+    private final Map<Long, Integer> quantities = new LinkedHashMap<>();
+
+    GuestCart(String id, int maxItems) {
+        this.id = id;
+        this.maxItems = maxItems;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public synchronized int add(Long productId, int quantity) {
+        if (!quantities.containsKey(productId) && quantities.size() >= maxItems) {
+            throw new IllegalArgumentException("Sepette en fazla " + maxItems + " farklı ürün olabilir");
+        }
+        return quantities.merge(productId, quantity, Integer::sum);
+    }
+
+    public synchronized void update(Long productId, int quantity) {
+        if (!quantities.containsKey(productId)) {
+            throw new IllegalArgumentException("Ürün sepette bulunamadı");
+        }
+        quantities.put(productId, quantity);
+    }
+
+    public synchronized void remove(Long productId) {
+        if (quantities.remove(productId) == null) {
+            throw new IllegalArgumentException("Ürün sepette bulunamadı");
+        }
+    }
+
+    public synchronized Map<Long, Integer> snapshot() {
+        return new LinkedHashMap<>(quantities);
+    }
+
+    public synchronized boolean isEmpty() {
+        return quantities.isEmpty();
+    }
+}
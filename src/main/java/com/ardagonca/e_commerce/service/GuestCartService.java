@@ -0,0 +1,179 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.dto.CartResponse;
+import com.ardagonca.e_commerce.model.CartItem;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Misafir sepetlerini imzalı bir çerez ile eşleyip sınırlı, süreli bir
+ * bellek deposunda tutar. Misafir sepetleri veritabanına yazılmaz;
+ * giriş yapıldığında {@link CartService#mergeGuestCart} ile birleştirilir.
+ */
+@Service
+@Slf4j
+public class GuestCartService {
+
+    public static final String COOKIE_NAME = "guest_cart";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ProductRepository productRepository;
+    private final PromotionService promotionService;
+    private final Cache<String, GuestCart> carts;
+    private final SecretKeySpec signingKey;
+    private final Duration ttl;
+    private final int maxItems;
+
+    public GuestCartService(
+            ProductRepository productRepository,
+            PromotionService promotionService,
+            @Value("${app.guest-cart.secret:${app.jwt.secret}}") String secret,
+            @Value("${app.guest-cart.ttl:2h}") Duration ttl,
+            @Value("${app.guest-cart.max-carts:100000}") long maxCarts,
+            @Value("${app.guest-cart.max-items:100}") int maxItems) {
+        this.productRepository = productRepository;
+        this.promotionService = promotionService;
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.maxItems = maxItems;
+        this.carts = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxCarts)
+                .build();
+    }
+
+    /** Çerez değeri geçerli bir imza taşıyorsa sepet kimliğini döndürür. */
+    public Optional<String> resolveId(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String id = token.substring(0, separator);
+        byte[] expected = sign(id).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual) ? Optional.of(id) : Optional.empty();
+    }
+
+    public Optional<GuestCart> find(String token) {
+        return resolveId(token).map(carts::getIfPresent);
+    }
+
+    /** Çerezdeki sepeti döndürür; çerez yoksa ya da süresi dolmuşsa yeni sepet açar. */
+    public GuestCart findOrCreate(String token) {
+        String id = resolveId(token).orElseGet(() -> UUID.randomUUID().toString());
+        return carts.get(id, key -> new GuestCart(key, maxItems));
+    }
+
+    /** Sepeti depodan çıkarır; birleştirme sırasında aynı sepetin iki kez işlenmesini önler. */
+    public Optional<GuestCart> take(String token) {
+        return resolveId(token).map(id -> carts.asMap().remove(id));
+    }
+
+    public void restore(GuestCart cart) {
+        carts.asMap().putIfAbsent(cart.getId(), cart);
+    }
+
+    public CartItem addToCart(GuestCart cart, Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Miktar 0'dan büyük olmalıdır");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı"));
+        int total = cart.add(productId, quantity);
+        CartItem item = CartItem.builder()
+                .product(product)
+                .quantity(total)
+                .build();
+        item.updatePrices();
+        return item;
+    }
+
+    public void updateQuantity(GuestCart cart, Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Miktar 0'dan büyük olmalıdır");
+        }
+        cart.update(productId, quantity);
+    }
+
+    public CartResponse toResponse(GuestCart cart) {
+        Map<Long, Integer> quantities = cart.snapshot();
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<CartResponse.CartItemResponse> items = new ArrayList<>(quantities.size());
+        double totalPrice = 0.0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                // Silinmiş ürünler sepette gösterilmez
+                continue;
+            }
+            double itemTotal = product.getPrice() * entry.getValue();
+            totalPrice += itemTotal;
+            items.add(CartResponse.CartItemResponse.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .price(product.getPrice())
+                    .quantity(entry.getValue())
+                    .totalPrice(itemTotal)
+                    .build());
+        }
+        return promotionService.applyTo(CartResponse.builder()
+                .items(items)
+                .totalPrice(totalPrice)
+                .build());
+    }
+
+    public ResponseCookie cookie(GuestCart cart) {
+        return ResponseCookie.from(COOKIE_NAME, cart.getId() + "." + sign(cart.getId()))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/api/v1")
+                .maxAge(ttl)
+                .build();
+    }
+
+    public ResponseCookie clearCookie() {
+        return ResponseCookie.from(COOKIE_NAME, "")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/api/v1")
+                .maxAge(0)
+                .build();
+    }
+
+    private String sign(String id) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] signature = mac.doFinal(id.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Misafir sepeti imzalanamadı", e);
+        }
+    }
+}
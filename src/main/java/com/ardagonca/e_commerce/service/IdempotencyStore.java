@@ -0,0 +1,27 @@
+package com.ardagonca.e_commerce.service;
+
+/**
+ * {@code Idempotency-Key} kayıtlarının saklandığı yer. Anahtarlar istemci
+ * kapsamıyla birlikte özetlenmiş olarak gelir.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Anahtarı bu istek için ayırır. Anahtar boştaysa (ya da süresi dolmuş,
+     * yarım kalmış bir ayırmaysa) {@code null}, aksi halde mevcut kaydı döndürür.
+     */
+    Entry reserve(String key, String fingerprint);
+
+    /** İşlenen isteğin yanıtını tekrar gönderimler için saklar. */
+    void complete(String key, StoredResponse response);
+
+    /** Yanıtı saklanmayacak (ör. 5xx) isteğin ayırmasını kaldırır; istemci yeniden deneyebilir. */
+    void release(String key);
+
+    /** @param response istek hâlâ işleniyorsa {@code null} */
+    record Entry(String fingerprint, StoredResponse response) {
+    }
+
+    record StoredResponse(int status, String contentType, String setCookie, byte[] body) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.ardagonca.e_commerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sık istenen ürün resimlerini Java heap'i dışında, doğrudan (direct)
+ * {@link ByteBuffer}'larda tutar.
+ * <p>
+ * Toplam boyut {@code app.image-cache.max-size} ile sınırlıdır; tahliyeyi
+ * Caffeine'in sıklık tabanlı (W-TinyLFU) politikası yapar. Bir resim ancak
+ * {@code admit-after-hits} kez istendikten sonra belleğe alınır; tek seferlik
+ * istekler doğrudan diskten sunulur ve önbelleği kirletmez.
+ * <p>
+ * Yüklenen resim adları benzersiz olduğundan dosyalar değişmez kabul edilir.
+ * Tahliye edilen tamponların belleği çöp toplayıcı tamponu topladığında geri
+ * verilir; {@code -XX:MaxDirectMemorySize} bütçenin üzerinde tutulmalıdır.
+ */
+@Service
+@Slf4j
+public class ImageCache {
+
+    private final Cache<Path, CachedImage> images;
+    /** Henüz önbellekte olmayan resimlerin istek sayıları (kapı bekçisi). */
+    private final Cache<Path, AtomicInteger> candidates;
+    private final long maxEntryBytes;
+    private final int admitAfterHits;
+    private final Counter diskReads;
+    private final Counter rejected;
+
+    public ImageCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.image-cache.max-size:256MB}") DataSize maxSize,
+            @Value("${app.image-cache.max-entry-size:2MB}") DataSize maxEntrySize,
+            @Value("${app.image-cache.admit-after-hits:2}") int admitAfterHits,
+            @Value("${app.image-cache.max-candidates:20000}") long maxCandidates) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.admitAfterHits = admitAfterHits;
+        this.images = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Path path, CachedImage image) -> (int) Math.min(Integer.MAX_VALUE, image.contentLength()))
+                .recordStats()
+                .build();
+        this.candidates = Caffeine.newBuilder()
+                .maximumSize(maxCandidates)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "image-cache");
+        Gauge.builder("image.cache.bytes", images, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Önbellekteki resimlerin heap dışı toplam boyutu")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.diskReads = Counter.builder("image.cache.disk.reads")
+                .description("Diskten sunulan resim istekleri")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("image.cache.rejected")
+                .description("Boyut sınırını aştığı için önbelleğe alınmayan resimler")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Dosya için sunulacak kaynağı döndürür: önbellekteyse heap dışı kopya,
+     * değilse dosyanın kendisi. Dosya yoksa {@code null}.
+     */
+    public Resource resolve(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        CachedImage cached = images.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!Files.isRegularFile(key)) {
+            return null;
+        }
+
+        int hits = candidates.get(key, path -> new AtomicInteger()).incrementAndGet();
+        long size = Files.size(key);
+        if (size > maxEntryBytes) {
+            rejected.increment();
+        } else if (hits >= admitAfterHits) {
+            candidates.invalidate(key);
+            CachedImage loaded = load(key, size);
+            images.put(key, loaded);
+            return loaded;
+        }
+        diskReads.increment();
+        return new FileSystemResource(key);
+    }
+
+    private static CachedImage load(Path file, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Dosya sonuna ya da tampon dolana kadar oku
+            }
+        }
+        buffer.flip();
+        return new CachedImage(file.getFileName().toString(), buffer.asReadOnlyBuffer(),
+                Files.getLastModifiedTime(file).toMillis(), Files.probeContentType(file));
+    }
+
+    /**
+     * Heap dışı tampondaki resim. Her okuma tamponun bağımsız bir kopyası
+     * ({@link ByteBuffer#duplicate()}) üzerinden yapılır; veri heap'e
+     * toplu olarak kopyalanmaz.
+     */
+    public static final class CachedImage extends AbstractResource {
+        private final String filename;
+        private final ByteBuffer data;
+        private final long lastModified;
+        private final String contentType;
+
+        CachedImage(String filename, ByteBuffer data, long lastModified, String contentType) {
+            this.filename = filename;
+            this.data = data;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long contentLength() {
+            return data.remaining();
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferInputStream(data.duplicate());
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached image [" + filename + "]";
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
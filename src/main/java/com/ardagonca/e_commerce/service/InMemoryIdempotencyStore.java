@@ -0,0 +1,60 @@
+package com.ardagonca.e_commerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Tek düğüm için sınırlı, süreli bellek içi depo. Kayıtlar yazıldıktan
+ * {@code ttl} sonra, kapasite dolduğunda ise en az kullanılanlardan başlayarak atılır.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Record> records;
+    private final long lockTimeoutMillis;
+
+    public InMemoryIdempotencyStore(
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        this.records = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .build();
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+    }
+
+    @Override
+    public Entry reserve(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Record[] existing = new Record[1];
+        records.asMap().compute(key, (k, current) -> {
+            if (current == null || (current.response == null && current.reservedAt + lockTimeoutMillis < now)) {
+                return new Record(fingerprint, null, now);
+            }
+            existing[0] = current;
+            return current;
+        });
+        return existing[0] == null ? null : new Entry(existing[0].fingerprint, existing[0].response);
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        records.asMap().computeIfPresent(key,
+                (k, current) -> new Record(current.fingerprint, response, current.reservedAt));
+    }
+
+    @Override
+    public void release(String key) {
+        records.asMap().computeIfPresent(key, (k, current) -> current.response == null ? null : current);
+    }
+
+    private record Record(String fingerprint, StoredResponse response, long reservedAt) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.ardagonca.e_commerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Birden çok düğüm için PostgreSQL'de tutulan depo ({@code idempotency_keys}).
+ * Ayırma tek bir {@code INSERT ... ON CONFLICT} ile yapılır; süresi dolmuş ya da
+ * yarım kalmış kayıtlar aynı ifadede devralınır.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String RESERVE_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, reserved_at, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+               SET fingerprint = EXCLUDED.fingerprint,
+                   reserved_at = EXCLUDED.reserved_at,
+                   expires_at = EXCLUDED.expires_at,
+                   status = NULL, content_type = NULL, set_cookie = NULL, body = NULL
+             WHERE idempotency_keys.expires_at < EXCLUDED.reserved_at
+                OR (idempotency_keys.status IS NULL AND idempotency_keys.reserved_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public JdbcIdempotencyStore(
+            DataSource dataSource,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public Entry reserve(String key, String fingerprint) {
+        Instant now = Instant.now();
+        int reserved = jdbcTemplate.update(RESERVE_SQL,
+                key, fingerprint, Timestamp.from(now), Timestamp.from(now.plus(ttl)),
+                Timestamp.from(now.minus(lockTimeout)));
+        if (reserved > 0) {
+            return null;
+        }
+        List<Entry> entries = jdbcTemplate.query(
+                "SELECT fingerprint, status, content_type, set_cookie, body FROM idempotency_keys WHERE idempotency_key = ?",
+                (rs, rowNum) -> {
+                    int status = rs.getInt("status");
+                    StoredResponse response = rs.wasNull() ? null : new StoredResponse(
+                            status, rs.getString("content_type"), rs.getString("set_cookie"), rs.getBytes("body"));
+                    return new Entry(rs.getString("fingerprint"), response);
+                },
+                key);
+        // Kayıt iki ifade arasında silindiyse yeniden dene
+        return entries.isEmpty() ? reserve(key, fingerprint) : entries.get(0);
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET status = ?, content_type = ?, set_cookie = ?, body = ? WHERE idempotency_key = ?",
+                response.status(), response.contentType(), response.setCookie(), response.body(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", Timestamp.from(Instant.now()));
+        if (deleted > 0) {
+            log.debug("Süresi dolan {} idempotency anahtarı silindi", deleted);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.event.PromotionsChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Başka bir düğümde yapılan değişiklikleri bu düğümün önbelleklerine uygular.
+ * <p>
+ * Ürünlerde ikinci seviye önbellek kaydı silinir ve outbox aktarıcısı uyandırılır;
+ * katalog sürümü, anlık görüntü, sütunlu katalog, öneriler ve SSE akışı değişikliği
+ * {@link CatalogOutboxRelay} üzerinden alır. Yerel olarak yeniden yayınlanan olaylar
+ * tekrar {@code NOTIFY} edilmez ({@link #isApplyingRemote()}).
+ */
+@Service
+@Slf4j
+public class LocalCacheInvalidator {
+
+    private static final ThreadLocal<Boolean> APPLYING_REMOTE = new ThreadLocal<>();
+
+    private final Cache secondLevelCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogOutboxRelay catalogOutboxRelay;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CatalogVersion catalogVersion;
+    private final ColumnarCatalog columnarCatalog;
+    private final ProductSuggestService productSuggestService;
+
+    public LocalCacheInvalidator(
+            EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher,
+            CatalogOutboxRelay catalogOutboxRelay,
+            CatalogSnapshotService catalogSnapshotService,
+            CatalogVersion catalogVersion,
+            ColumnarCatalog columnarCatalog,
+            ProductSuggestService productSuggestService) {
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.eventPublisher = eventPublisher;
+        this.catalogOutboxRelay = catalogOutboxRelay;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.catalogVersion = catalogVersion;
+        this.columnarCatalog = columnarCatalog;
+        this.productSuggestService = productSuggestService;
+    }
+
+    /** Olay başka bir düğümden gelen değişikliğin yerel uygulamasıysa {@code true}. */
+    public static boolean isApplyingRemote() {
+        return Boolean.TRUE.equals(APPLYING_REMOTE.get());
+    }
+
+    public void productChanged(Long productId) {
+        secondLevelCache.evictEntityData(Product.class, productId);
+        catalogOutboxRelay.wakeUp();
+    }
+
+    public void userChanged(Long userId) {
+        secondLevelCache.evictEntityData(User.class, userId);
+        // Doğal kimlik önbelleği eski e-postayı da tutabilir; bölge küçük olduğundan tamamı silinir
+        secondLevelCache.evictNaturalIdData(User.class);
+    }
+
+    public void promotionsChanged(Long promotionId) {
+        publishLocally(new PromotionsChangedEvent(promotionId));
+    }
+
+    /** Hangi kayıtların değiştiği bilinmediğinde ilgili önbelleklerin tamamını yeniler. */
+    public void invalidateAll(String name) {
+        log.warn("Kaçırılan değişiklikler nedeniyle '{}' önbellekleri tamamen yenileniyor", name);
+        switch (name) {
+            case ClusterCacheInvalidator.PRODUCT -> {
+                secondLevelCache.evictEntityData(Product.class);
+                catalogVersion.resetAll();
+                catalogSnapshotService.invalidate();
+                columnarCatalog.rebuild();
+                productSuggestService.load();
+            }
+            case ClusterCacheInvalidator.USER -> {
+                secondLevelCache.evictEntityData(User.class);
+                secondLevelCache.evictNaturalIdData(User.class);
+            }
+            case ClusterCacheInvalidator.PROMOTION -> promotionsChanged(null);
+            default -> log.warn("Bilinmeyen önbellek adı: {}", name);
+        }
+    }
+
+    private void publishLocally(Object event) {
+        APPLYING_REMOTE.set(true);
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            APPLYING_REMOTE.remove();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.dto.ProductStreamEvent;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ürün değişikliklerini SSE istemcilerine dağıtır. Her olay bir kez
+ * serileştirilir; her istemcinin sınırlı bir kuyruğu vardır ve kuyruğu
+ * dolan (yavaş) istemcinin bağlantısı kapatılır.
+ */
+@Service
+@Slf4j
+public class ProductEventBroadcaster implements CatalogChangeSubscriber {
+
+    private final ObjectMapper objectMapper;
+    private final int clientBufferSize;
+    private final int maxClients;
+    private final long emitterTimeout;
+    private final ExecutorService senders;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public ProductEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${app.sse.client-buffer-size:32}") int clientBufferSize,
+            @Value("${app.sse.max-clients:10000}") int maxClients,
+            @Value("${app.sse.timeout-ms:1800000}") long emitterTimeout,
+            @Value("${app.sse.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.clientBufferSize = clientBufferSize;
+        this.maxClients = maxClients;
+        this.emitterTimeout = emitterTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        if (clients.size() >= maxClients) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Akış bağlantı sınırına ulaşıldı");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(clientBufferSize));
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        log.debug("SSE istemcisi bağlandı, toplam: {}", clients.size());
+        return emitter;
+    }
+
+    @Override
+    public void onCatalogChanges(List<ProductChangedEvent> changes) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        for (ProductChangedEvent event : changes) {
+            ProductStreamEvent payload = ProductStreamEvent.fromEvent(event);
+            try {
+                String json = objectMapper.writeValueAsString(payload);
+                broadcast(SseEmitter.event()
+                        .id(Long.toString(eventIds.incrementAndGet()))
+                        .name(payload.getType())
+                        .data(json)
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.error("SSE olayı serileştirilemedi: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onChangesMissed() {
+        // Akış yalnızca canlı değişiklikleri taşır; kaçırılan olaylar sonradan gönderilemez
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        if (!clients.isEmpty()) {
+            broadcast(SseEmitter.event().comment("ping").build());
+        }
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Client client : clients) {
+            if (!client.queue.offer(frame)) {
+                log.debug("Yavaş SSE istemcisi düşürülüyor");
+                drop(client);
+                continue;
+            }
+            if (client.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(client));
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = client.queue.poll()) != null) {
+                try {
+                    client.emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    drop(client);
+                    return;
+                }
+            }
+            client.draining.set(false);
+            // Bayrak bırakıldıktan sonra gelen çerçeveyi kaçırmamak için tekrar kontrol et
+            if (client.queue.isEmpty() || !client.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void drop(Client client) {
+        if (clients.remove(client)) {
+            client.queue.clear();
+            try {
+                client.emitter.complete();
+            } catch (Exception ignored) {
+                // Bağlantı zaten kapanmış olabilir
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(this::drop);
+        senders.shutdownNow();
+    }
+
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Client(SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
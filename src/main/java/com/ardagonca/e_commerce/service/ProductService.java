@@ -1,20 +1,59 @@
 package com.ardagonca.e_commerce.service;
 
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.ProductBatchResponse;
 import com.ardagonca.e_commerce.dto.ProductRequest;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
 import com.ardagonca.e_commerce.model.Product;
 import com.ardagonca.e_commerce.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.ardagonca.e_commerce.repository.projection.ProductCardView;
+import com.ardagonca.e_commerce.repository.projection.ProductSummaryView;
+import com.ardagonca.e_commerce.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
+@Bulkhead("catalog")
 @Slf4j
 public class ProductService {
+    private static final Set<String> SUMMARY_FIELDS = Set.of("id", "name", "price");
+    private static final Set<String> CARD_FIELDS = Set.of("id", "name", "price", "imageUrl", "stock");
+    private static final Set<String> ALL_FIELDS = Set.of("id", "name", "price", "imageUrl", "stock", "description");
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Long, Product> productLoads;
+    private final TransactionTemplate primaryTransaction;
+
+    public ProductService(
+            ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.productLoads = new SingleFlight<>("product", meterRegistry);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        productLoads.forget(event.getProductId());
+    }
 
     @Transactional
     public Product createProduct(ProductRequest request) {
@@ -27,34 +66,135 @@ public class ProductService {
                 .imageUrl(request.getImageUrl())
                 .build();
         
-        return productRepository.save(product);
+        var saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
     @Transactional
     public Product updateProduct(Long id, ProductRequest request) {
         log.debug("Ürün güncelleniyor: {}", id);
         
-        var product = getProductById(id);
+        var product = productRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı: " + id));
+        var previousPrice = product.getPrice();
+        var previousStock = product.getStock();
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setImageUrl(request.getImageUrl());
         
-        return productRepository.save(product);
+        var saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved, previousPrice, previousStock));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    /** Bir sonraki yazmaya kadar saklanacak tam okumalar için; replikaya değil birincil veritabanına gider. */
+    @Transactional
+    public List<Product> getAllProductsFromPrimary() {
+        return productRepository.findAll();
+    }
+
+    /**
+     * Aynı ürün için eşzamanlı istekler tek sorguyu paylaşır; dönen nesne
+     * salt okunurdur, güncellemeler ürünü kendi işleminde yeniden okur.
+     * ETag katalog sürümünden geldiği ve sonuç ikinci seviye önbelleğe girdiği için
+     * okuma replikaya değil birincil veritabanına gider.
+     */
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Ürün bulunamadı: " + id));
+        Product product = productLoads.load(id,
+                () -> primaryTransaction.execute(status -> productRepository.findById(id).orElse(null)));
+        if (product == null) {
+            throw new IllegalArgumentException("Ürün bulunamadı: " + id);
+        }
+        return product;
+    }
+
+    /**
+     * Yalnızca istenen alanları döndürür. Alanları karşılayan en dar projeksiyon
+     * seçilir; böylece örneğin {@code description} istenmedikçe okunmaz.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getProductFields(List<String> fields, Pageable pageable) {
+        for (String field : fields) {
+            if (!ALL_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Bilinmeyen alan: " + field);
+            }
+        }
+        if (SUMMARY_FIELDS.containsAll(fields)) {
+            return productRepository.findSummaries(pageable).map(view -> select(fields, view, null));
+        }
+        if (CARD_FIELDS.containsAll(fields)) {
+            return productRepository.findCards(pageable).map(view -> select(fields, view, null));
+        }
+        return productRepository.findAll(pageable).map(product -> select(fields, null, product));
+    }
+
+    private static Map<String, Object> select(List<String> fields, ProductSummaryView view, Product product) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, product != null ? fieldOf(product, field) : fieldOf(view, field));
+        }
+        return values;
+    }
+
+    private static Object fieldOf(ProductSummaryView view, String field) {
+        return switch (field) {
+            case "id" -> view.getId();
+            case "name" -> view.getName();
+            case "price" -> view.getPrice();
+            case "imageUrl" -> ((ProductCardView) view).getImageUrl();
+            case "stock" -> ((ProductCardView) view).getStock();
+            default -> throw new IllegalArgumentException("Bilinmeyen alan: " + field);
+        };
+    }
+
+    private static Object fieldOf(Product product, String field) {
+        return switch (field) {
+            case "id" -> product.getId();
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "imageUrl" -> product.getImageUrl();
+            case "stock" -> product.getStock();
+            case "description" -> product.getDescription();
+            default -> throw new IllegalArgumentException("Bilinmeyen alan: " + field);
+        };
+    }
+
+    /**
+     * Ürünleri istekteki sırayla döndürür; tekrarlanan kimlikler bir kez yüklenir.
+     * ETag'li yanıt ve önbelleği dolduran okuma olduğundan birincil veritabanına gider.
+     */
+    @Transactional
+    public ProductBatchResponse getProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<Product> loaded = productRepository.findAllByIdInOrder(distinctIds);
+
+        List<Product> products = new ArrayList<>(loaded.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Product product = loaded.get(i);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(distinctIds.get(i));
+            }
+        }
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
     }
 
     @Transactional
     public void deleteProduct(Long id) {
         log.debug("Ürün siliniyor: {}", id);
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,410 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.ProductSuggestion;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.CartItemRepository;
+import com.ardagonca.e_commerce.repository.ProductRepository;
+import com.ardagonca.e_commerce.repository.projection.ProductPopularityView;
+import com.ardagonca.e_commerce.repository.projection.ProductSummaryView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ürün adları üzerinde önek tamamlama.
+ * <p>
+ * Ad, aksanlardan arındırılıp küçük harfe çevrilerek kelimelere bölünür ve her
+ * kelime değişmez bir trie'ye eklenir. Her düğüm, alt ağacındaki en popüler
+ * {@code nodeCapacity} ürünü önceden hesaplanmış olarak tutar; sorgu yalnızca
+ * önek boyunca yürür. Popülerlik, ürünün bulunduğu sepet sayısıdır. Çok kelimeli
+ * sorgularda en az ürün içeren önekin alt ağacı taranır ve diğer kelimelerle kesiştirilir.
+ * <p>
+ * Ürün değişikliklerinde yalnızca ilgili kelimelerin yolu kopyalanarak yeni
+ * kök yayımlanır; popülerlik periyodik olarak yenilenir ve trie baştan kurulur.
+ */
+@Service
+@Slf4j
+public class ProductSuggestService implements CatalogChangeSubscriber {
+
+    private static final Node EMPTY = new Node(new char[0], new Node[0], new long[0], new long[0], 0);
+
+    private final ProductRepository productRepository;
+    private final CartItemRepository cartItemRepository;
+    private final int nodeCapacity;
+    private final int loadChunkSize;
+
+    /** Okuyucular için ürün adı ve kelimeleri; trie'den dönen kimlikler burada çözülür. */
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    /** Kilit altında bütün olarak değiştirilir; yayımlandıktan sonra değişmez. */
+    private volatile Map<Long, Long> popularity = new HashMap<>();
+    private boolean loaded;
+
+    private volatile Node root = EMPTY;
+
+    public ProductSuggestService(
+            ProductRepository productRepository,
+            CartItemRepository cartItemRepository,
+            @Value("${app.catalog.suggest.node-capacity:10}") int nodeCapacity,
+            @Value("${app.catalog.suggest.load-chunk-size:10000}") int loadChunkSize) {
+        this.productRepository = productRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.nodeCapacity = nodeCapacity;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Bulkhead("catalog")
+    public synchronized void load() {
+        entries.clear();
+        long afterId = 0;
+        List<ProductSummaryView> chunk;
+        do {
+            chunk = productRepository.findSummariesAfter(afterId, Limit.of(loadChunkSize));
+            for (ProductSummaryView view : chunk) {
+                entries.put(view.getId(), new Entry(view.getName(), tokenize(view.getName())));
+                afterId = view.getId();
+            }
+        } while (chunk.size() == loadChunkSize);
+        loaded = true;
+        refreshPopularity();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.suggest.popularity-refresh-ms:300000}",
+            initialDelayString = "${app.catalog.suggest.popularity-refresh-ms:300000}")
+    @Bulkhead("catalog")
+    public synchronized void refreshPopularity() {
+        if (!loaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, Long> counts = new HashMap<>();
+        for (ProductPopularityView view : cartItemRepository.countCartsByProduct()) {
+            counts.put(view.getProductId(), view.getCartCount());
+        }
+        popularity = counts;
+
+        List<Posting> postings = new ArrayList<>();
+        entries.forEach((id, entry) -> {
+            for (String token : entry.tokens()) {
+                postings.add(new Posting(token, id));
+            }
+        });
+        postings.sort((a, b) -> {
+            int byToken = a.token().compareTo(b.token());
+            return byToken != 0 ? byToken : Long.compare(a.productId(), b.productId());
+        });
+        root = postings.isEmpty() ? EMPTY : build(postings, 0, postings.size(), 0);
+        log.info("Öneri trie'si oluşturuldu: {} ürün, {} kelime, {} ms",
+                entries.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void onCatalogChanges(List<ProductChangedEvent> changes) {
+        if (!loaded) {
+            return;
+        }
+        for (ProductChangedEvent event : changes) {
+            apply(event);
+        }
+    }
+
+    @Override
+    @Bulkhead("catalog")
+    public void onChangesMissed() {
+        load();
+    }
+
+    private void apply(ProductChangedEvent event) {
+        long id = event.getProductId();
+        Entry previous = entries.get(id);
+        Product product = event.getProduct();
+        Entry next = event.getType() != ProductChangedEvent.Type.DELETED && product != null
+                ? new Entry(product.getName(), tokenize(product.getName()))
+                : null;
+
+        Node updated = root;
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                if (next == null || !Arrays.asList(next.tokens()).contains(token)) {
+                    updated = with(updated, token, 0, id, false);
+                }
+            }
+        }
+        if (next != null) {
+            // Ad trie'den önce yazılır ki yeni kök yayımlandığında çözülebilsin
+            entries.put(id, next);
+            for (String token : next.tokens()) {
+                if (previous == null || !Arrays.asList(previous.tokens()).contains(token)) {
+                    updated = with(updated, token, 0, id, true);
+                }
+            }
+        }
+        root = updated;
+        if (next == null) {
+            entries.remove(id);
+        }
+    }
+
+    /** Düğümler en fazla bu kadar aday tuttuğundan {@link #suggest} daha büyük limit kabul etmez. */
+    public int getMaxLimit() {
+        return nodeCapacity;
+    }
+
+    /**
+     * Her kelime önek olarak aranır. Tek kelimede düğümün önceden hesaplanmış en
+     * popüler adayları döner; birden çok kelimede en seçici önekin bütün ürünleri
+     * diğer kelimelerle filtrelenip popülerliğe göre sıralanır.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (limit > nodeCapacity) {
+            throw new IllegalArgumentException("limit en fazla " + nodeCapacity + " olabilir");
+        }
+        String[] terms = tokenize(prefix);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        Node snapshot = root;
+        Node narrowest = null;
+        for (String term : terms) {
+            Node node = find(snapshot, term);
+            if (node == null) {
+                return List.of();
+            }
+            if (narrowest == null || node.size < narrowest.size) {
+                narrowest = node;
+            }
+        }
+
+        long[] candidates;
+        if (terms.length == 1) {
+            candidates = narrowest.top;
+        } else {
+            Map<Long, Long> counts = popularity;
+            candidates = collect(narrowest, new LinkedHashSet<>()).stream()
+                    .sorted((a, b) -> {
+                        int byPopularity = Long.compare(counts.getOrDefault(b, 0L), counts.getOrDefault(a, 0L));
+                        return byPopularity != 0 ? byPopularity : Long.compare(a, b);
+                    })
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        }
+
+        List<ProductSuggestion> result = new ArrayList<>(Math.min(limit, candidates.length));
+        for (long id : candidates) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Entry entry = entries.get(id);
+            if (entry != null && entry.matchesAll(terms)) {
+                result.add(new ProductSuggestion(id, entry.name()));
+            }
+        }
+        return result;
+    }
+
+    private static Node find(Node node, String prefix) {
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /** Alt ağaçta biten bütün ürün kimliklerini toplar. */
+    private static LinkedHashSet<Long> collect(Node node, LinkedHashSet<Long> ids) {
+        for (long id : node.terminal) {
+            ids.add(id);
+        }
+        for (Node child : node.children) {
+            collect(child, ids);
+        }
+        return ids;
+    }
+
+    /** Sıralı kelime-ürün çiftlerinden alt trie'yi kurar. */
+    private Node build(List<Posting> postings, int from, int to, int depth) {
+        int i = from;
+        List<Long> terminal = new ArrayList<>();
+        while (i < to && postings.get(i).token().length() == depth) {
+            terminal.add(postings.get(i++).productId());
+        }
+        List<Character> labels = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = postings.get(i).token().charAt(depth);
+            int end = i;
+            while (end < to && postings.get(end).token().charAt(depth) == c) {
+                end++;
+            }
+            labels.add(c);
+            children.add(build(postings, i, end, depth + 1));
+            i = end;
+        }
+        char[] labelArray = new char[labels.size()];
+        for (int k = 0; k < labelArray.length; k++) {
+            labelArray[k] = labels.get(k);
+        }
+        long[] terminalArray = terminal.stream().mapToLong(Long::longValue).toArray();
+        Node[] childArray = children.toArray(new Node[0]);
+        return node(labelArray, childArray, terminalArray);
+    }
+
+    /** Yol kopyalama ile tek bir kelime-ürün çiftini ekler ya da çıkarır. */
+    private Node with(Node node, String token, int depth, long id, boolean add) {
+        if (depth == token.length()) {
+            long[] terminal = add ? insertSorted(node.terminal, id) : removeSorted(node.terminal, id);
+            return node(node.labels, node.children, terminal);
+        }
+        char c = token.charAt(depth);
+        int index = Arrays.binarySearch(node.labels, c);
+        Node child = index >= 0 ? node.children[index] : EMPTY;
+        if (index < 0 && !add) {
+            return node;
+        }
+        Node updated = with(child, token, depth + 1, id, add);
+
+        char[] labels;
+        Node[] children;
+        if (updated.isEmpty()) {
+            labels = new char[node.labels.length - 1];
+            children = new Node[node.children.length - 1];
+            System.arraycopy(node.labels, 0, labels, 0, index);
+            System.arraycopy(node.labels, index + 1, labels, index, labels.length - index);
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        } else if (index >= 0) {
+            labels = node.labels;
+            children = node.children.clone();
+            children[index] = updated;
+        } else {
+            int insertAt = -(index + 1);
+            labels = new char[node.labels.length + 1];
+            children = new Node[node.children.length + 1];
+            System.arraycopy(node.labels, 0, labels, 0, insertAt);
+            System.arraycopy(node.labels, insertAt, labels, insertAt + 1, node.labels.length - insertAt);
+            System.arraycopy(node.children, 0, children, 0, insertAt);
+            System.arraycopy(node.children, insertAt, children, insertAt + 1, node.children.length - insertAt);
+            labels[insertAt] = c;
+            children[insertAt] = updated;
+        }
+        return node(labels, children, node.terminal);
+    }
+
+    private Node node(char[] labels, Node[] children, long[] terminal) {
+        int size = terminal.length;
+        for (Node child : children) {
+            size += child.size;
+        }
+        return new Node(labels, children, terminal, topOf(terminal, children), size);
+    }
+
+    /** Düğümde biten ürünler ile çocukların en iyileri birleştirilerek düğümün en iyileri bulunur. */
+    private long[] topOf(long[] terminal, Node[] children) {
+        LinkedHashSet<Long> candidates = new LinkedHashSet<>();
+        for (long id : terminal) {
+            candidates.add(id);
+        }
+        for (Node child : children) {
+            for (long id : child.top) {
+                candidates.add(id);
+            }
+        }
+        return candidates.stream()
+                .sorted((a, b) -> {
+                    int byPopularity = Long.compare(popularity.getOrDefault(b, 0L), popularity.getOrDefault(a, 0L));
+                    return byPopularity != 0 ? byPopularity : Long.compare(a, b);
+                })
+                .limit(nodeCapacity)
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private static long[] insertSorted(long[] values, long value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return values;
+        }
+        int insertAt = -(index + 1);
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(values, insertAt, result, insertAt + 1, values.length - insertAt);
+        return result;
+    }
+
+    private static long[] removeSorted(long[] values, long value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index < 0) {
+            return values;
+        }
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, index);
+        System.arraycopy(values, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    /** Aksanları kaldırır, küçük harfe çevirir ve harf/rakam dışı karakterlerden böler. */
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replace('ı', 'i');
+        return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private record Posting(String token, long productId) {
+    }
+
+    private record Entry(String name, String[] tokens) {
+
+        boolean matchesAll(String[] terms) {
+            for (String term : terms) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** {@code size}: alt ağaçtaki kelime-ürün çifti sayısı. */
+    private record Node(char[] labels, Node[] children, long[] terminal, long[] top, int size) {
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        boolean isEmpty() {
+            return terminal.length == 0 && children.length == 0;
+        }
+    }
+}
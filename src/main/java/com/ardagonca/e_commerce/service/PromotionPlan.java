@@ -0,0 +1,227 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.model.Promotion;
+import com.ardagonca.e_commerce.model.PromotionType;
+import com.ardagonca.e_commerce.util.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Promosyon kurallarının derlenmiş, değişmez hali. Kurallar türüne göre ilkel
+ * dizilere açılır: ürüne özel kurallar ürün kimliğine göre sıralı tutulup ikili
+ * aramayla bulunur, tüm ürünlere ve sepete uygulanan kurallar ayrı aralıklardadır.
+ * Değerlendirme kuruş cinsinden {@code long} aritmetiğiyle yapılır ve nesne oluşturmaz.
+ *
+ * <p>Her satıra geçerli ürün kurallarından en yüksek indirimi sağlayan tek kural,
+ * ardından satır indirimleri düşülmüş ara toplama en iyi sepet eşiği kuralı uygulanır.
+ */
+final class PromotionPlan {
+
+    static final PromotionPlan EMPTY = compile(List.of());
+
+    private static final byte PERCENT = 0;
+    private static final byte FIXED = 1;
+    private static final byte BUY_X_GET_Y = 2;
+
+    /** Ürüne özel kuralların ürün kimlikleri (tekil, sıralı) ve kural aralıkları. */
+    private final long[] productKeys;
+    private final int[] productOffsets;
+    /** Tüm ürünlere uygulanan kurallar {@code [globalStart, kinds.length)} aralığındadır. */
+    private final int globalStart;
+
+    private final byte[] kinds;
+    /** Yüzde kurallarında baz puan, sabit kurallarda kuruş, X al Y öde kurallarında X. */
+    private final long[] firstArgs;
+    /** X al Y öde kurallarında Y; diğerlerinde kullanılmaz. */
+    private final long[] secondArgs;
+    private final long[] itemFrom;
+    private final long[] itemUntil;
+
+    /** Sepet eşiği kuralları. */
+    private final long[] cartThresholds;
+    private final long[] cartPercents;
+    private final long[] cartAmounts;
+    private final long[] cartFrom;
+    private final long[] cartUntil;
+
+    private final int ruleCount;
+
+    private PromotionPlan(long[] productKeys, int[] productOffsets, int globalStart,
+                          byte[] kinds, long[] firstArgs, long[] secondArgs, long[] itemFrom, long[] itemUntil,
+                          long[] cartThresholds, long[] cartPercents, long[] cartAmounts,
+                          long[] cartFrom, long[] cartUntil) {
+        this.productKeys = productKeys;
+        this.productOffsets = productOffsets;
+        this.globalStart = globalStart;
+        this.kinds = kinds;
+        this.firstArgs = firstArgs;
+        this.secondArgs = secondArgs;
+        this.itemFrom = itemFrom;
+        this.itemUntil = itemUntil;
+        this.cartThresholds = cartThresholds;
+        this.cartPercents = cartPercents;
+        this.cartAmounts = cartAmounts;
+        this.cartFrom = cartFrom;
+        this.cartUntil = cartUntil;
+        this.ruleCount = kinds.length + cartThresholds.length;
+    }
+
+    /** Etkin kuralları derler; kuralların önceden doğrulanmış olduğu varsayılır. */
+    static PromotionPlan compile(List<Promotion> promotions) {
+        List<Promotion> productRules = new ArrayList<>();
+        List<Promotion> globalRules = new ArrayList<>();
+        List<Promotion> cartRules = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            if (!Boolean.TRUE.equals(promotion.getActive())) {
+                continue;
+            }
+            if (promotion.getType() == PromotionType.CART_THRESHOLD) {
+                cartRules.add(promotion);
+            } else if (promotion.getProductId() != null) {
+                productRules.add(promotion);
+            } else {
+                globalRules.add(promotion);
+            }
+        }
+        productRules.sort(Comparator.comparingLong(Promotion::getProductId));
+
+        int itemCount = productRules.size() + globalRules.size();
+        byte[] kinds = new byte[itemCount];
+        long[] firstArgs = new long[itemCount];
+        long[] secondArgs = new long[itemCount];
+        long[] itemFrom = new long[itemCount];
+        long[] itemUntil = new long[itemCount];
+
+        long[] keys = new long[productRules.size()];
+        int[] offsets = new int[productRules.size() + 1];
+        int keyCount = 0;
+        for (int i = 0; i < productRules.size(); i++) {
+            long productId = productRules.get(i).getProductId();
+            if (keyCount == 0 || keys[keyCount - 1] != productId) {
+                keys[keyCount] = productId;
+                offsets[keyCount] = i;
+                keyCount++;
+            }
+            fillItemRule(productRules.get(i), i, kinds, firstArgs, secondArgs, itemFrom, itemUntil);
+        }
+        offsets[keyCount] = productRules.size();
+        for (int i = 0; i < globalRules.size(); i++) {
+            fillItemRule(globalRules.get(i), productRules.size() + i, kinds, firstArgs, secondArgs, itemFrom, itemUntil);
+        }
+
+        int cartCount = cartRules.size();
+        long[] thresholds = new long[cartCount];
+        long[] percents = new long[cartCount];
+        long[] amounts = new long[cartCount];
+        long[] cartFrom = new long[cartCount];
+        long[] cartUntil = new long[cartCount];
+        for (int i = 0; i < cartCount; i++) {
+            Promotion rule = cartRules.get(i);
+            thresholds[i] = Money.toMinor(rule.getMinCartTotal());
+            percents[i] = basisPoints(rule.getDiscountPercent());
+            amounts[i] = Money.toMinor(rule.getDiscountAmount());
+            cartFrom[i] = rule.getStartsAt() != null ? rule.getStartsAt().toEpochMilli() : Long.MIN_VALUE;
+            cartUntil[i] = rule.getEndsAt() != null ? rule.getEndsAt().toEpochMilli() : Long.MAX_VALUE;
+        }
+
+        return new PromotionPlan(
+                Arrays.copyOf(keys, keyCount), Arrays.copyOf(offsets, keyCount + 1),
+                productRules.size(), kinds, firstArgs, secondArgs, itemFrom, itemUntil,
+                thresholds, percents, amounts, cartFrom, cartUntil);
+    }
+
+    private static void fillItemRule(Promotion rule, int index, byte[] kinds, long[] firstArgs, long[] secondArgs,
+                                     long[] itemFrom, long[] itemUntil) {
+        switch (rule.getType()) {
+            case PERCENTAGE -> {
+                kinds[index] = PERCENT;
+                firstArgs[index] = basisPoints(rule.getDiscountPercent());
+            }
+            case FIXED_AMOUNT -> {
+                kinds[index] = FIXED;
+                firstArgs[index] = Money.toMinor(rule.getDiscountAmount());
+            }
+            case BUY_X_GET_Y -> {
+                kinds[index] = BUY_X_GET_Y;
+                firstArgs[index] = rule.getBuyQuantity();
+                secondArgs[index] = rule.getFreeQuantity();
+            }
+            default -> throw new IllegalArgumentException("Ürün kuralı değil: " + rule.getType());
+        }
+        itemFrom[index] = rule.getStartsAt() != null ? rule.getStartsAt().toEpochMilli() : Long.MIN_VALUE;
+        itemUntil[index] = rule.getEndsAt() != null ? rule.getEndsAt().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    private static long basisPoints(Double percent) {
+        return percent == null ? 0L : Math.round(percent * 100);
+    }
+
+    int size() {
+        return ruleCount;
+    }
+
+    /**
+     * Sepetin toplam indirimini kuruş cinsinden döndürür.
+     *
+     * @param lineDiscounts {@code null} değilse her satırın ürün indirimi buraya yazılır
+     */
+    long evaluate(long[] productIds, long[] unitPrices, int[] quantities, int count,
+                  long[] lineDiscounts, long nowMillis) {
+        long subtotal = 0;
+        long itemDiscount = 0;
+        for (int i = 0; i < count; i++) {
+            long unitPrice = unitPrices[i];
+            int quantity = quantities[i];
+            long best = 0;
+            int key = Arrays.binarySearch(productKeys, productIds[i]);
+            if (key >= 0) {
+                best = bestLineDiscount(productOffsets[key], productOffsets[key + 1], unitPrice, quantity, nowMillis, best);
+            }
+            best = bestLineDiscount(globalStart, kinds.length, unitPrice, quantity, nowMillis, best);
+
+            long lineTotal = unitPrice * quantity;
+            best = Math.min(best, lineTotal);
+            if (lineDiscounts != null) {
+                lineDiscounts[i] = best;
+            }
+            subtotal += lineTotal;
+            itemDiscount += best;
+        }
+
+        long remaining = subtotal - itemDiscount;
+        long cartDiscount = 0;
+        for (int r = 0; r < cartThresholds.length; r++) {
+            if (remaining < cartThresholds[r] || nowMillis < cartFrom[r] || nowMillis >= cartUntil[r]) {
+                continue;
+            }
+            long discount = cartPercents[r] > 0
+                    ? percentOf(remaining, cartPercents[r])
+                    : cartAmounts[r];
+            cartDiscount = Math.max(cartDiscount, discount);
+        }
+        return itemDiscount + Math.min(cartDiscount, remaining);
+    }
+
+    private long bestLineDiscount(int from, int until, long unitPrice, int quantity, long nowMillis, long best) {
+        for (int r = from; r < until; r++) {
+            if (nowMillis < itemFrom[r] || nowMillis >= itemUntil[r]) {
+                continue;
+            }
+            long discount = switch (kinds[r]) {
+                case PERCENT -> percentOf(unitPrice * quantity, firstArgs[r]);
+                case FIXED -> Math.min(firstArgs[r], unitPrice) * quantity;
+                default -> (quantity / (firstArgs[r] + secondArgs[r])) * secondArgs[r] * unitPrice;
+            };
+            best = Math.max(best, discount);
+        }
+        return best;
+    }
+
+    /** Baz puan cinsinden oran; yarım kuruşlar yukarı yuvarlanır. */
+    private static long percentOf(long amount, long basisPoints) {
+        return (amount * basisPoints + 5_000) / 10_000;
+    }
+}
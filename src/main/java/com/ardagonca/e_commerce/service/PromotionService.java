@@ -0,0 +1,189 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.dto.CartResponse;
+import com.ardagonca.e_commerce.event.PromotionsChangedEvent;
+import com.ardagonca.e_commerce.model.Promotion;
+import com.ardagonca.e_commerce.model.PromotionType;
+import com.ardagonca.e_commerce.repository.PromotionRepository;
+import com.ardagonca.e_commerce.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Promosyon kurallarının yönetimi ve sepet fiyatlandırması. Kurallar her
+ * değişiklikte {@link PromotionPlan} olarak derlenir; sepet fiyatlandırması
+ * yalnızca bu değişmez planı okur.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionService {
+
+    private final PromotionRepository promotionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile PromotionPlan plan = PromotionPlan.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        recompile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionsChanged(PromotionsChangedEvent event) {
+        recompile();
+    }
+
+    synchronized void recompile() {
+        long start = System.nanoTime();
+        PromotionPlan compiled = PromotionPlan.compile(promotionRepository.findAll());
+        plan = compiled;
+        log.info("Promosyon planı derlendi: {} etkin kural, {} ms",
+                compiled.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Bulkhead("admin")
+    @Transactional(readOnly = true)
+    public List<Promotion> getAllPromotions() {
+        return promotionRepository.findAll();
+    }
+
+    @Bulkhead("admin")
+    @Transactional
+    public Promotion createPromotion(Promotion promotion) {
+        validate(promotion);
+        promotion.setId(null);
+        Promotion saved = promotionRepository.save(promotion);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    @Bulkhead("admin")
+    @Transactional
+    public Promotion updatePromotion(Long id, Promotion updated) {
+        Promotion promotion = promotionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Promosyon bulunamadı"));
+        validate(updated);
+        promotion.setName(updated.getName());
+        promotion.setType(updated.getType());
+        promotion.setProductId(updated.getProductId());
+        promotion.setDiscountPercent(updated.getDiscountPercent());
+        promotion.setDiscountAmount(updated.getDiscountAmount());
+        promotion.setBuyQuantity(updated.getBuyQuantity());
+        promotion.setFreeQuantity(updated.getFreeQuantity());
+        promotion.setMinCartTotal(updated.getMinCartTotal());
+        promotion.setActive(updated.getActive());
+        promotion.setStartsAt(updated.getStartsAt());
+        promotion.setEndsAt(updated.getEndsAt());
+        Promotion saved = promotionRepository.save(promotion);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    @Bulkhead("admin")
+    @Transactional
+    public void deletePromotion(Long id) {
+        Promotion promotion = promotionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Promosyon bulunamadı"));
+        promotionRepository.delete(promotion);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(id));
+    }
+
+    /**
+     * Sepet yanıtına ara toplamı, indirimi ve ödenecek tutarı yazar.
+     * Satır başına ürün indirimi {@code discount} alanında döner.
+     */
+    public CartResponse applyTo(CartResponse response) {
+        List<CartResponse.CartItemResponse> items = response.getItems();
+        int count = items == null ? 0 : items.size();
+        long[] productIds = new long[count];
+        long[] unitPrices = new long[count];
+        int[] quantities = new int[count];
+        long[] lineDiscounts = new long[count];
+
+        long subtotal = 0;
+        for (int i = 0; i < count; i++) {
+            CartResponse.CartItemResponse item = items.get(i);
+            productIds[i] = item.getProductId();
+            unitPrices[i] = Money.toMinor(item.getPrice());
+            quantities[i] = item.getQuantity();
+            subtotal += unitPrices[i] * quantities[i];
+        }
+        long discount = plan.evaluate(productIds, unitPrices, quantities, count,
+                lineDiscounts, System.currentTimeMillis());
+
+        for (int i = 0; i < count; i++) {
+            CartResponse.CartItemResponse item = items.get(i);
+            item.setTotalPrice(Money.fromMinor(unitPrices[i] * quantities[i]));
+            item.setDiscount(Money.fromMinor(lineDiscounts[i]));
+        }
+        response.setSubtotal(Money.fromMinor(subtotal));
+        response.setDiscount(Money.fromMinor(discount));
+        response.setTotalPrice(Money.fromMinor(subtotal - discount));
+        return response;
+    }
+
+    private static void validate(Promotion promotion) {
+        if (promotion.getName() == null || promotion.getName().isBlank()) {
+            throw new IllegalArgumentException("Promosyon adı boş olamaz");
+        }
+        PromotionType type = promotion.getType();
+        if (type == null) {
+            throw new IllegalArgumentException("Promosyon türü belirtilmelidir");
+        }
+        switch (type) {
+            case PERCENTAGE -> requirePercent(promotion.getDiscountPercent());
+            case FIXED_AMOUNT -> requirePositive(promotion.getDiscountAmount(), "İndirim tutarı");
+            case BUY_X_GET_Y -> {
+                if (promotion.getBuyQuantity() == null || promotion.getBuyQuantity() < 1
+                        || promotion.getFreeQuantity() == null || promotion.getFreeQuantity() < 1) {
+                    throw new IllegalArgumentException("Alınan ve ücretsiz adet 1 veya daha büyük olmalıdır");
+                }
+            }
+            case CART_THRESHOLD -> {
+                if (promotion.getProductId() != null) {
+                    throw new IllegalArgumentException("Sepet eşiği kuralı ürüne bağlanamaz");
+                }
+                if (promotion.getMinCartTotal() == null || promotion.getMinCartTotal() < 0) {
+                    throw new IllegalArgumentException("Sepet eşiği 0 veya daha büyük olmalıdır");
+                }
+                if ((promotion.getDiscountPercent() == null) == (promotion.getDiscountAmount() == null)) {
+                    throw new IllegalArgumentException("Sepet eşiği kuralında yüzde ya da tutardan yalnızca biri verilmelidir");
+                }
+                if (promotion.getDiscountPercent() != null) {
+                    requirePercent(promotion.getDiscountPercent());
+                } else {
+                    requirePositive(promotion.getDiscountAmount(), "İndirim tutarı");
+                }
+            }
+        }
+        if (promotion.getStartsAt() != null && promotion.getEndsAt() != null
+                && !promotion.getStartsAt().isBefore(promotion.getEndsAt())) {
+            throw new IllegalArgumentException("Başlangıç tarihi bitiş tarihinden önce olmalıdır");
+        }
+        if (promotion.getActive() == null) {
+            promotion.setActive(true);
+        }
+    }
+
+    private static void requirePercent(Double percent) {
+        if (percent == null || percent <= 0 || percent > 100) {
+            throw new IllegalArgumentException("İndirim yüzdesi 0 ile 100 arasında olmalıdır");
+        }
+    }
+
+    private static void requirePositive(Double amount, String label) {
+        if (amount == null || amount <= 0) {
+            throw new IllegalArgumentException(label + " 0'dan büyük olmalıdır");
+        }
+    }
+}
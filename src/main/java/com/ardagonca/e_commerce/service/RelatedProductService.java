@@ -0,0 +1,275 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.config.Bulkhead;
+import com.ardagonca.e_commerce.event.CartChangedEvent;
+import com.ardagonca.e_commerce.event.CartsPurgedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.CartItemRepository;
+import com.ardagonca.e_commerce.repository.ProductRepository;
+import com.ardagonca.e_commerce.repository.projection.CartProductView;
+import com.ardagonca.e_commerce.util.LongDoubleHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * "Birlikte sepete eklenenler" önerileri.
+ * <p>
+ * Aynı sepette bulunan ürün çiftleri simetrik bir birlikte-bulunma matrisinde
+ * sayılır. Her satır ilkel anahtarlı bir {@link LongDoubleHashMap}'tir ve
+ * sepet olaylarıyla artırılıp azaltılır. Ağırlıklar periyodik olarak
+ * sönümlenir; eski eğilimler zamanla unutulur. Her ürünün en güçlü komşuları
+ * değişiklikte hesaplanıp saklanır, böylece sorgu sabit zamanda yanıtlanır.
+ * <p>
+ * Matris başlangıçta ve zamanlanmış olarak {@code cart_items} tablosu
+ * akış halinde okunup baştan kurulur. Kurulum sırasında gelen olaylardan
+ * yalnızca akışta görünmeyenler yeni matrise yeniden uygulanır: akış sorgusundan
+ * önce gelenler zaten commit edilmiştir; sonra gelen eklemelerden de kimliği
+ * akıştaki en büyük {@code cart_items.id} değerini aşmayanlar akışta sayılmıştır.
+ */
+@Service
+@Slf4j
+public class RelatedProductService {
+
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int topK;
+    private final double decayFactor;
+    private final double pruneBelow;
+    private final int maxCartItems;
+
+    private final Object lock = new Object();
+    /** Kilit altında erişilir. */
+    private Map<Long, LongDoubleHashMap> matrix = new HashMap<>();
+    /** Yeniden kurulum sürerken gelen olaylar; kurulum yokken {@code null}. */
+    private List<CartChangedEvent> pendingDuringRebuild;
+    /** Akış sorgusu başlamadan önce gelen, dolayısıyla akışta yer alan olay sayısı. */
+    private int pendingBeforeStream;
+
+    private volatile Map<Long, long[]> related = new ConcurrentHashMap<>();
+
+    public RelatedProductService(
+            CartItemRepository cartItemRepository,
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.recommendations.top-k:10}") int topK,
+            @Value("${app.recommendations.decay-factor:0.95}") double decayFactor,
+            @Value("${app.recommendations.prune-below:0.05}") double pruneBelow,
+            @Value("${app.recommendations.max-cart-items:50}") int maxCartItems) {
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.topK = topK;
+        this.decayFactor = decayFactor;
+        this.pruneBelow = pruneBelow;
+        this.maxCartItems = maxCartItems;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Product> getRelatedProducts(Long productId, int limit) {
+        long[] ids = related.getOrDefault(productId, new long[0]);
+        List<Long> wanted = Arrays.stream(ids).limit(limit).boxed().toList();
+        Map<Long, Product> products = productRepository.findAllById(wanted).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // Sıralama ağırlığa göredir; silinmiş ürünler atlanır
+        return wanted.stream()
+                .map(products::get)
+                .filter(product -> product != null)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartChanged(CartChangedEvent event) {
+        synchronized (lock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            Map<Long, long[]> current = related;
+            for (long product : apply(matrix, event)) {
+                current.put(product, topOf(matrix.get(product)));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.decay-interval-ms:3600000}",
+            initialDelayString = "${app.recommendations.decay-interval-ms:3600000}")
+    public void decay() {
+        synchronized (lock) {
+            matrix.values().forEach(row -> row.scaleAndPrune(decayFactor, pruneBelow));
+            matrix.values().removeIf(LongDoubleHashMap::isEmpty);
+            related = topsOf(matrix);
+        }
+        log.debug("Birlikte-bulunma ağırlıkları sönümlendi: {} ürün", related.size());
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CartsPurgedEvent.class})
+    @Scheduled(cron = "${app.recommendations.rebuild-cron:0 30 3 * * *}")
+    @Bulkhead("catalog")
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (lock) {
+            if (pendingDuringRebuild != null) {
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, LongDoubleHashMap> built = new HashMap<>();
+        Accumulated accumulated;
+        try {
+            accumulated = readOnlyTransaction.execute(status -> {
+                // Bağlantı ve okuma görüntüsü ilk sorguda alınır; bundan önce gelen olaylar akışta vardır
+                synchronized (lock) {
+                    pendingBeforeStream = pendingDuringRebuild.size();
+                }
+                try (Stream<CartProductView> rows = cartItemRepository.streamCartProducts()) {
+                    return accumulate(rows, built);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendingDuringRebuild = null;
+            }
+            log.error("Öneri matrisi yeniden kurulamadı: {}", e.getMessage(), e);
+            return;
+        }
+
+        synchronized (lock) {
+            for (int i = pendingBeforeStream; i < pendingDuringRebuild.size(); i++) {
+                CartChangedEvent event = pendingDuringRebuild.get(i);
+                if (!streamed(event, accumulated.highWaterMark())) {
+                    apply(built, event);
+                }
+            }
+            pendingDuringRebuild = null;
+            matrix = built;
+            related = topsOf(built);
+        }
+        log.info("Öneri matrisi yeniden kuruldu: {} sepet, {} ürün, {} ms",
+                accumulated.carts(), built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Akış sorgusundan sonra gelen eklemelerden kimliği akıştaki en büyük kimliği aşmayanlar sayılmıştır. */
+    private static boolean streamed(CartChangedEvent event, long highWaterMark) {
+        return event.getType() == CartChangedEvent.Type.ITEM_ADDED
+                && event.getCartItemId() != null
+                && event.getCartItemId() <= highWaterMark;
+    }
+
+    /** Sepete göre sıralı satırları sepet sepet gruplayıp çiftleri sayar. */
+    private Accumulated accumulate(Stream<CartProductView> rows, Map<Long, LongDoubleHashMap> target) {
+        long[] buffer = new long[maxCartItems];
+        // geçerli sepet, tampondaki ürün sayısı, sepet sayısı, en büyük satır kimliği
+        long[] state = {Long.MIN_VALUE, 0, 0, 0};
+        rows.forEach(row -> {
+            state[3] = Math.max(state[3], row.getId());
+            if (row.getCartId() != state[0]) {
+                countPairs(target, buffer, (int) state[1]);
+                state[0] = row.getCartId();
+                state[1] = 0;
+                state[2]++;
+            }
+            // Çok büyük sepetler karesel çift sayısını patlatmasın diye kırpılır
+            if (state[1] < maxCartItems) {
+                buffer[(int) state[1]++] = row.getProductId();
+            }
+        });
+        countPairs(target, buffer, (int) state[1]);
+        return new Accumulated(state[2], state[3]);
+    }
+
+    private static void countPairs(Map<Long, LongDoubleHashMap> target, long[] products, int count) {
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                addPair(target, products[i], products[j], 1.0);
+            }
+        }
+    }
+
+    /** Olayı matrise uygular ve satırı değişen ürünleri döndürür. */
+    private long[] apply(Map<Long, LongDoubleHashMap> target, CartChangedEvent event) {
+        long product = event.getProductId();
+        double delta = event.getType() == CartChangedEvent.Type.ITEM_ADDED ? 1.0 : -1.0;
+        long[] others = event.getOtherProductIds();
+        int count = Math.min(others.length, maxCartItems);
+        long[] touched = new long[count + 1];
+        touched[0] = product;
+        for (int i = 0; i < count; i++) {
+            if (others[i] != product) {
+                addPair(target, product, others[i], delta);
+            }
+            touched[i + 1] = others[i];
+        }
+        return touched;
+    }
+
+    private static void addPair(Map<Long, LongDoubleHashMap> target, long a, long b, double delta) {
+        addCell(target, a, b, delta);
+        addCell(target, b, a, delta);
+    }
+
+    private static void addCell(Map<Long, LongDoubleHashMap> target, long row, long column, double delta) {
+        LongDoubleHashMap cells = target.computeIfAbsent(row, key -> new LongDoubleHashMap());
+        if (cells.addTo(column, delta) <= 0.0) {
+            cells.remove(column);
+            if (cells.isEmpty()) {
+                target.remove(row);
+            }
+        }
+    }
+
+    private Map<Long, long[]> topsOf(Map<Long, LongDoubleHashMap> source) {
+        Map<Long, long[]> tops = new ConcurrentHashMap<>(Math.max(16, source.size() * 2));
+        source.forEach((product, row) -> tops.put(product, topOf(row)));
+        return tops;
+    }
+
+    /** Satırdaki en yüksek ağırlıklı {@code topK} ürün; eşitlikte küçük kimlik önce gelir. */
+    private long[] topOf(LongDoubleHashMap row) {
+        if (row == null) {
+            return new long[0];
+        }
+        long[] ids = new long[topK];
+        double[] weights = new double[topK];
+        int[] size = {0};
+        row.forEach((id, weight) -> {
+            int position = size[0];
+            while (position > 0 && (weights[position - 1] < weight
+                    || (weights[position - 1] == weight && ids[position - 1] > id))) {
+                position--;
+            }
+            if (position >= topK) {
+                return;
+            }
+            int last = Math.min(size[0], topK - 1);
+            System.arraycopy(ids, position, ids, position + 1, last - position);
+            System.arraycopy(weights, position, weights, position + 1, last - position);
+            ids[position] = id;
+            weights[position] = weight;
+            size[0] = Math.min(size[0] + 1, topK);
+        });
+        return Arrays.copyOf(ids, size[0]);
+    }
+
+    private record Accumulated(long carts, long highWaterMark) {
+    }
+}
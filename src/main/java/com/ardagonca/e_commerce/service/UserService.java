@@ -1,14 +1,17 @@
 package com.ardagonca.e_commerce.service;
 
 import com.ardagonca.e_commerce.dto.UpdateUserRequest;
+import com.ardagonca.e_commerce.event.UserChangedEvent;
 import com.ardagonca.e_commerce.model.User;
 import com.ardagonca.e_commerce.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +19,7 @@ public class UserService implements UserDetailsService {
     
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -23,6 +27,7 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + email));
     }
 
+    @Transactional
     public void updateUser(String email, UpdateUserRequest request) {
         User user = repository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
@@ -46,5 +51,6 @@ public class UserService implements UserDetailsService {
         }
 
         repository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), email));
     }
 } 
\ No newline at end of file
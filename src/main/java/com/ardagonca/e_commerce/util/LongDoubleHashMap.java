@@ -0,0 +1,187 @@
+package com.ardagonca.e_commerce.util;
+
+import java.util.Arrays;
+
+/**
+ * {@code long} anahtarları {@code double} değerlere eşleyen açık adresli harita.
+ * <p>
+ * Kutulama yapmaz; doğrusal yoklama kullanır ve silmede geri kaydırma ile
+ * mezar taşı bırakmaz. {@link #EMPTY_KEY} anahtar olarak kullanılamaz.
+ * İş parçacığı güvenli değildir.
+ */
+public class LongDoubleHashMap {
+
+    public static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongDoubleHashMap() {
+        this(8);
+    }
+
+    public LongDoubleHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(expectedSize / LOAD_FACTOR)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Anahtar yoksa 0 döner. */
+    public double get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : 0.0;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    public void put(long key, double value) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /** Değere {@code delta} ekler ve yeni değeri döndürür. */
+    public double addTo(long key, double delta) {
+        int slot = find(key);
+        if (slot >= 0) {
+            values[slot] += delta;
+            return values[slot];
+        }
+        put(key, delta);
+        return delta;
+    }
+
+    public boolean remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /** Tüm değerleri {@code factor} ile çarpar ve {@code threshold} altına düşenleri siler. */
+    public void scaleAndPrune(double factor, double threshold) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            values[slot] *= factor;
+        }
+        int slot = 0;
+        while (slot < keys.length) {
+            if (keys[slot] != EMPTY_KEY && values[slot] < threshold) {
+                // Geri kaydırma bu yuvaya başka bir girdi taşıyabilir; aynı yuva tekrar incelenir
+                removeSlot(slot);
+                continue;
+            }
+            slot++;
+        }
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY_KEY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, double value);
+    }
+
+    private int find(long key) {
+        if (key == EMPTY_KEY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY_KEY) {
+            int home = mix(keys[next]) & mask;
+            // Girdinin ev yuvası boşluk ile kendisi arasında (döngüsel) değilse boşluğa taşınabilir
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = 0.0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY_KEY) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        values = new double[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Geçersiz anahtar: " + key);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = 1;
+        while (size < Math.max(capacity, 2)) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ardagonca.e_commerce.util;
+
+/**
+ * Fiyatlar veritabanında {@code Double} tutulur; hesaplamalar kuruş cinsinden
+ * {@code long} ile yapılıp sonuç geri çevrilir, böylece toplamlarda kayan nokta hatası birikmez.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toMinor(Double amount) {
+        return amount == null ? 0L : Math.round(amount * 100);
+    }
+
+    public static double fromMinor(long minor) {
+        return minor / 100.0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ardagonca.e_commerce.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Aynı anahtar için eşzamanlı yüklemeleri tek çağrıda birleştirir: ilk gelen
+ * yüklemeyi kendi iş parçacığında yapar, o sürerken gelenler aynı sonucu
+ * (ya da hatayı) bekler. Sonuç saklanmaz; yükleme bitince anahtar bırakılır.
+ * <p>
+ * Paylaşılan sonuç değiştirilmemelidir. Veri değiştiğinde {@link #forget} ile
+ * yoldaki yükleme ayrılır; sonraki çağrılar eski okumaya katılmaz.
+ * <p>
+ * Metrikler: {@code singleflight.loads} ve {@code singleflight.coalesced},
+ * {@code name} etiketiyle.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("singleflight.loads")
+                .tag("name", name)
+                .description("Veritabanına giden yüklemeler")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.coalesced")
+                .tag("name", name)
+                .description("Yoldaki bir yüklemeye katılan çağrılar")
+                .register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /** Yoldaki yüklemeyi bekleyenler sonucunu yine alır, yeni çağrılar yeniden yükler. */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+-- Hibernate'in ddl-auto=update ile ürettiği şemanın karşılığı.
+-- Mevcut veritabanlarında baseline-on-migrate nedeniyle çalıştırılmaz.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT ck_users_role CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE products (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    price       FLOAT(53)    NOT NULL,
+    image_url   VARCHAR(255) NOT NULL,
+    stock       INTEGER      NOT NULL
+);
+
+CREATE TABLE carts (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT    NOT NULL,
+    total_price FLOAT(53) NOT NULL,
+    CONSTRAINT fk_carts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE cart_items (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cart_id     BIGINT    NOT NULL,
+    product_id  BIGINT    NOT NULL,
+    quantity    INTEGER   NOT NULL,
+    unit_price  FLOAT(53) NOT NULL,
+    total_price FLOAT(53) NOT NULL,
+    CONSTRAINT fk_cart_items_cart FOREIGN KEY (cart_id) REFERENCES carts (id),
+    CONSTRAINT fk_cart_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
@@ -0,0 +1,59 @@
+-- Sık kullanılan sorgular için indeksler. IF NOT EXISTS, Hibernate'in daha önce
+-- oluşturmuş olabileceği kısıtlarla çakışmayı önler.
+
+-- Boşta kalan sepet temizliği için eklenen sütun; ddl-auto=update ile oluşmuş olabilir.
+-- Boş kalan değerleri CartPurgeService ilk temizlik turunda doldurur.
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Eski sürümlerde bir kullanıcıya birden fazla sepet açılmış olabilir: ürünler ilk sepete taşınır
+UPDATE cart_items ci
+SET cart_id = d.keep_id
+FROM (SELECT c.id AS cart_id, k.keep_id
+      FROM carts c
+      JOIN (SELECT user_id, MIN(id) AS keep_id
+            FROM carts
+            GROUP BY user_id
+            HAVING COUNT(*) > 1) k ON k.user_id = c.user_id AND c.id <> k.keep_id) d
+WHERE ci.cart_id = d.cart_id;
+
+DELETE FROM carts c
+WHERE EXISTS (SELECT 1
+              FROM carts other
+              WHERE other.user_id = c.user_id
+                AND other.id < c.id);
+
+-- Eski sürümlerde aynı ürün bir sepete iki kez eklenmiş olabilir: adetler ilk satırda toplanır
+UPDATE cart_items ci
+SET quantity    = d.quantity,
+    total_price = ci.unit_price * d.quantity
+FROM (SELECT MIN(id) AS keep_id, SUM(quantity) AS quantity
+      FROM cart_items
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) d
+WHERE ci.id = d.keep_id;
+
+DELETE FROM cart_items ci
+WHERE EXISTS (SELECT 1
+              FROM cart_items other
+              WHERE other.cart_id = ci.cart_id
+                AND other.product_id = ci.product_id
+                AND other.id < ci.id);
+
+-- Birleştirilen sepetlerin toplamları yeniden hesaplanır
+UPDATE carts c
+SET total_price = COALESCE((SELECT SUM(ci.total_price) FROM cart_items ci WHERE ci.cart_id = c.id), 0);
+
+-- CartItemRepository.findByCartAndProduct; cart_id ile başladığından sepet içeriği yüklemeyi de karşılar
+CREATE UNIQUE INDEX IF NOT EXISTS ux_cart_items_cart_product ON cart_items (cart_id, product_id);
+
+-- Ürün silmede yabancı anahtar kontrolü ve ürüne göre gruplanan analiz sorguları
+CREATE INDEX IF NOT EXISTS ix_cart_items_product ON cart_items (product_id);
+
+-- CartRepository.findByUser / findByUserWithItems: kullanıcı başına tek sepet
+CREATE UNIQUE INDEX IF NOT EXISTS ux_carts_user ON carts (user_id);
+
+-- Fiyata göre sıralı katalog ve fiyat aralığı sorguları
+CREATE INDEX IF NOT EXISTS ix_products_price_id ON products (price, id);
+
+-- CartRepository.lockIdleCartIds (boşta kalan sepet temizliği)
+CREATE INDEX IF NOT EXISTS ix_carts_updated_at_id ON carts (updated_at, id);
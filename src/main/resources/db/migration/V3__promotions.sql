@@ -0,0 +1,20 @@
+-- Sepet fiyatlandırmasında kullanılan promosyon kuralları.
+
+CREATE TABLE promotions (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    type             VARCHAR(32)  NOT NULL,
+    product_id       BIGINT,
+    discount_percent FLOAT(53),
+    discount_amount  FLOAT(53),
+    buy_quantity     INTEGER,
+    free_quantity    INTEGER,
+    min_cart_total   FLOAT(53),
+    active           BOOLEAN      NOT NULL DEFAULT TRUE,
+    starts_at        TIMESTAMP(6) WITH TIME ZONE,
+    ends_at          TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT fk_promotions_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE,
+    CONSTRAINT ck_promotions_type CHECK (type IN ('PERCENTAGE', 'FIXED_AMOUNT', 'BUY_X_GET_Y', 'CART_THRESHOLD'))
+);
+
+CREATE INDEX ix_promotions_product ON promotions (product_id);
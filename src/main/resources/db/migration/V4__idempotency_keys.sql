@@ -0,0 +1,14 @@
+-- Çok düğümlü kurulumlarda Idempotency-Key kayıtları (app.idempotency.store=jdbc).
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64)                 PRIMARY KEY,
+    fingerprint     VARCHAR(64)                 NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    set_cookie      VARCHAR(1024),
+    body            BYTEA,
+    reserved_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX ix_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,9 @@
+-- Düğümler arası önbellek geçersizleştirme: her yazma ilgili satırın sürümünü artırır
+-- ve NOTIFY gönderir; kaçırılan bildirimler bu sürümlerle fark edilir.
+
+CREATE TABLE cache_versions (
+    name    VARCHAR(32) PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
+
+INSERT INTO cache_versions (name, version) VALUES ('product', 0), ('user', 0), ('promotion', 0);
@@ -0,0 +1,15 @@
+-- Ürün değişiklikleri yazmayla aynı işlemde bu tabloya eklenir; her düğümdeki
+-- aktarıcı satırları id sırasıyla okuyup türetilmiş yapılara dağıtır.
+
+CREATE TABLE catalog_outbox (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    origin         VARCHAR(16)                 NOT NULL,
+    event_type     VARCHAR(16)                 NOT NULL,
+    product_id     BIGINT                      NOT NULL,
+    payload        TEXT,
+    previous_price FLOAT(53),
+    previous_stock INTEGER,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX ix_catalog_outbox_created_at ON catalog_outbox (created_at);
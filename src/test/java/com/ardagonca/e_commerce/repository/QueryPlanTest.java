@@ -0,0 +1,155 @@
+package com.ardagonca.e_commerce.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+/**
+ * Sık kullanılan depo sorgularının PostgreSQL'de indeks ile çalıştığını doğrular.
+ * Hibernate'in gönderdiği SQL {@link CapturingStatementInspector} ile yakalanır ve
+ * aynı parametrelerle {@code EXPLAIN} edilir. Veri {@code db/explain/seed.sql} ile
+ * gerçekçi boyuta getirilir; aksi halde planlayıcı küçük tablolarda haklı olarak
+ * sıralı taramayı seçer. Docker yoksa test atlanır.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ardagonca.e_commerce.repository.QueryPlanTest$CapturingStatementInspector",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "/db/explain/seed.sql", executionPhase = BEFORE_TEST_CLASS)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void frequentQueriesUseIndexes() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long cartId = jdbcTemplate.queryForObject("SELECT id FROM carts ORDER BY random() LIMIT 1", Long.class);
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM carts WHERE id = ?", Long.class, cartId);
+        long productId = jdbcTemplate.queryForObject("SELECT id FROM products ORDER BY random() LIMIT 1", Long.class);
+        String email = jdbcTemplate.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId);
+        Instant cutoff = Instant.now().minus(Duration.ofDays(89));
+
+        List<String> failures = new ArrayList<>();
+        check(failures, "CartItemRepository.findByCartAndProduct", "cart_items",
+                () -> cartItemRepository.findByCartAndProduct(
+                        cartRepository.getReferenceById(cartId), productRepository.getReferenceById(productId)),
+                cartId, productId);
+        check(failures, "CartRepository.findByUser", "carts",
+                () -> cartRepository.findByUser(userRepository.getReferenceById(userId)),
+                userId);
+        check(failures, "CartRepository.findByUserWithItems", "cart_items",
+                () -> cartRepository.findByUserWithItems(userRepository.getReferenceById(userId)),
+                userId);
+        check(failures, "UserRepository.findByEmail", "users",
+                () -> userRepository.findByEmail(email),
+                email);
+        check(failures, "ProductRepository.findSummariesAfter", "products",
+                () -> productRepository.findSummariesAfter(productId, Limit.of(20)),
+                productId, 20);
+        check(failures, "CartRepository.lockIdleCarts", "carts",
+                () -> cartRepository.lockIdleCarts(cutoff, 0L, 500),
+                Timestamp.from(cutoff), 0L, 500);
+
+        assertThat(failures).as("İndeks kullanmayan sorgular").isEmpty();
+    }
+
+    /**
+     * Sorguyu çalıştırıp Hibernate'in gönderdiği ilk SQL'i yakalar ve aynı
+     * parametrelerle planını çıkarır. Hedef tablo sıralı taranıyorsa hata listesine ekler.
+     */
+    private void check(List<String> failures, String name, String table, Runnable query, Object... args)
+            throws Exception {
+        // Önbellekten dönen sonuç SQL göndermez
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        CapturingStatementInspector.STATEMENTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        assertThat(CapturingStatementInspector.STATEMENTS).as(name).isNotEmpty();
+
+        String sql = CapturingStatementInspector.STATEMENTS.get(0);
+        assertThat(sql.chars().filter(c -> c == '?').count()).as(name + ": " + sql).isEqualTo(args.length);
+
+        String json = new JdbcTemplate(dataSource).queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+        JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+        List<String> scans = new ArrayList<>();
+        collectScans(plan, table, scans);
+        if (scans.isEmpty() || scans.contains("Seq Scan")) {
+            failures.add(name + " " + scans + ": " + sql);
+        }
+    }
+
+    /** Plan ağacında hedef tabloya dokunan tarama düğümlerinin türlerini toplar. */
+    private static void collectScans(JsonNode node, String table, List<String> scans) {
+        if (node.has("Relation Name") && table.equals(node.get("Relation Name").asText())) {
+            scans.add(node.get("Node Type").asText());
+        }
+        if (node.has("Plans")) {
+            for (JsonNode child : node.get("Plans")) {
+                collectScans(child, table, scans);
+            }
+        }
+    }
+
+    /** Hibernate'in gönderdiği SQL'i sırayla kaydeder. */
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.dto.ProductSearchResponse;
+import com.ardagonca.e_commerce.event.ProductChangedEvent;
+import com.ardagonca.e_commerce.model.Product;
+import com.ardagonca.e_commerce.repository.ProductRepository;
+import com.ardagonca.e_commerce.repository.projection.ProductSummaryView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sütunlu kataloğun yerinde ekleme ve silmelerini, aynı verinin düz
+ * sıralamasıyla karşılaştırır.
+ */
+class ColumnarCatalogTest {
+
+    private static final int MAX_ID = 400;
+
+    /** Veritabanının yerine geçen model: id -> (ad, fiyat). */
+    private final TreeMap<Long, Row> database = new TreeMap<>();
+
+    @Test
+    void rebuildMatchesPlainSort() {
+        Random random = new Random(7);
+        for (int i = 0; i < 150; i++) {
+            long id = 1 + random.nextInt(MAX_ID);
+            database.put(id, new Row("Ürün " + id, randomPrice(random)));
+        }
+
+        ColumnarCatalog catalog = catalog();
+        catalog.rebuild();
+
+        assertMatches(catalog, random);
+    }
+
+    @Test
+    void randomInsertRemoveAndUpdateSequencesMatchPlainSort() {
+        for (long seed = 1; seed <= 20; seed++) {
+            database.clear();
+            Random random = new Random(seed);
+            for (int i = 0; i < random.nextInt(60); i++) {
+                long id = 1 + random.nextInt(MAX_ID);
+                database.put(id, new Row("Ürün " + id, randomPrice(random)));
+            }
+            ColumnarCatalog catalog = catalog();
+            catalog.rebuild();
+
+            for (int batch = 0; batch < 40; batch++) {
+                List<ProductChangedEvent> changes = new ArrayList<>();
+                int batchSize = 1 + random.nextInt(5);
+                for (int i = 0; i < batchSize; i++) {
+                    changes.add(randomChange(random));
+                }
+                catalog.onCatalogChanges(changes);
+                assertMatches(catalog, random);
+            }
+        }
+    }
+
+    @Test
+    void equalPricesAreOrderedById() {
+        database.put(30L, new Row("c", 10.0));
+        database.put(10L, new Row("a", 10.0));
+        database.put(20L, new Row("b", 5.0));
+        ColumnarCatalog catalog = catalog();
+        catalog.rebuild();
+        catalog.onCatalogChanges(List.of(ProductChangedEvent.created(product(15L, "d", 10.0))));
+
+        assertThat(ids(catalog.search(0, 100, false, 0, 10))).containsExactly(20L, 10L, 15L, 30L);
+        assertThat(ids(catalog.search(0, 100, true, 0, 10))).containsExactly(30L, 15L, 10L, 20L);
+    }
+
+    /** Değişikliği hem modele hem olaya uygular; aynı partide aynı ürün birden çok kez değişebilir. */
+    private ProductChangedEvent randomChange(Random random) {
+        int kind = random.nextInt(10);
+        if (database.isEmpty() || kind < 4) {
+            long id = 1 + random.nextInt(MAX_ID);
+            Row row = new Row("Ürün " + id + "/" + random.nextInt(1000), randomPrice(random));
+            boolean existed = database.put(id, row) != null;
+            Product product = product(id, row.name(), row.price());
+            return existed ? ProductChangedEvent.updated(product, null, null) : ProductChangedEvent.created(product);
+        }
+        long id = randomExistingId(random);
+        if (kind < 8) {
+            // Fiyatı bazen aynı bırakılan güncelleme
+            double price = random.nextBoolean() ? database.get(id).price() : randomPrice(random);
+            Row row = new Row("Güncel " + id, price);
+            database.put(id, row);
+            return ProductChangedEvent.updated(product(id, row.name(), row.price()), null, null);
+        }
+        if (kind == 8) {
+            database.remove(id);
+            return ProductChangedEvent.deleted(id);
+        }
+        // Katalogda olmayan ürünün silinmesi yok sayılır
+        long missing = MAX_ID + 1 + random.nextInt(100);
+        return ProductChangedEvent.deleted(missing);
+    }
+
+    private long randomExistingId(Random random) {
+        Long[] ids = database.keySet().toArray(new Long[0]);
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private void assertMatches(ColumnarCatalog catalog, Random random) {
+        assertThat(catalog.size()).isEqualTo(database.size());
+
+        List<ProductSearchResponse.Item> sorted = database.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Long, Row> e) -> e.getValue().price())
+                        .thenComparingLong(Map.Entry::getKey))
+                .map(e -> new ProductSearchResponse.Item(e.getKey(), e.getValue().name(), e.getValue().price()))
+                .toList();
+
+        List<double[]> ranges = new ArrayList<>();
+        ranges.add(new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY});
+        for (int i = 0; i < 5; i++) {
+            double a = randomPrice(random);
+            double b = randomPrice(random);
+            ranges.add(new double[]{Math.min(a, b), Math.max(a, b)});
+        }
+        ranges.add(new double[]{30.0, 10.0});
+
+        for (double[] range : ranges) {
+            List<ProductSearchResponse.Item> ascending = sorted.stream()
+                    .filter(item -> item.getPrice() >= range[0] && item.getPrice() <= range[1])
+                    .toList();
+            List<ProductSearchResponse.Item> descending = new ArrayList<>(ascending);
+            Collections.reverse(descending);
+
+            assertPages(catalog, range, false, ascending);
+            assertPages(catalog, range, true, descending);
+        }
+    }
+
+    private static void assertPages(ColumnarCatalog catalog, double[] range, boolean descending,
+                                    List<ProductSearchResponse.Item> expected) {
+        int pageSize = 7;
+        List<ProductSearchResponse.Item> collected = new ArrayList<>();
+        for (int page = 0; page <= expected.size() / pageSize + 1; page++) {
+            ProductSearchResponse response = catalog.search(range[0], range[1], descending, page, pageSize);
+            assertThat(response.getTotal()).isEqualTo(expected.size());
+            collected.addAll(response.getItems());
+        }
+        assertThat(collected).containsExactlyElementsOf(expected);
+    }
+
+    private ColumnarCatalog catalog() {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findSummariesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return database.tailMap(afterId, false).entrySet().stream()
+                    .limit(limit.max())
+                    .map(e -> (ProductSummaryView) new Summary(e.getKey(), e.getValue().name(), e.getValue().price()))
+                    .toList();
+        });
+        // Küçük parça boyutu yüklemenin parçalara bölünmesini de sınar
+        return new ColumnarCatalog(repository, 16);
+    }
+
+    private static double randomPrice(Random random) {
+        // Yarım liralık adımlar eşit fiyatları sık üretir
+        return random.nextInt(101) / 2.0;
+    }
+
+    private static Product product(long id, String name, double price) {
+        return Product.builder().id(id).name(name).price(price).build();
+    }
+
+    private static List<Long> ids(ProductSearchResponse response) {
+        return response.getItems().stream().map(ProductSearchResponse.Item::getId).toList();
+    }
+
+    private record Row(String name, double price) {
+    }
+
+    private record Summary(Long id, String name, Double price) implements ProductSummaryView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Double getPrice() {
+            return price;
+        }
+    }
+}
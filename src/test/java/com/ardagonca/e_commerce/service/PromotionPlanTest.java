@@ -0,0 +1,205 @@
+package com.ardagonca.e_commerce.service;
+
+import com.ardagonca.e_commerce.model.Promotion;
+import com.ardagonca.e_commerce.model.PromotionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromotionPlanTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void emptyPlanGivesNoDiscount() {
+        assertThat(evaluate(PromotionPlan.EMPTY, line(1, 1999, 3))).isZero();
+        assertThat(PromotionPlan.EMPTY.size()).isZero();
+    }
+
+    @Test
+    void percentageRuleDiscountsTheWholeLine() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(percentage(1L, 10.0)));
+
+        // 3 x 19,99 = 59,97; %10 = 5,997 -> 6,00
+        assertThat(evaluate(plan, line(1, 1999, 3))).isEqualTo(600);
+        assertThat(evaluate(plan, line(2, 1999, 3))).isZero();
+    }
+
+    @Test
+    void percentageRoundsHalfKurusUp() {
+        // 1,00 x %2,5 = 2,5 kuruş -> 3; %2,4 = 2,4 kuruş -> 2
+        assertThat(evaluate(PromotionPlan.compile(List.of(percentage(1L, 2.5))), line(1, 100, 1))).isEqualTo(3);
+        assertThat(evaluate(PromotionPlan.compile(List.of(percentage(1L, 2.4))), line(1, 100, 1))).isEqualTo(2);
+    }
+
+    @Test
+    void fixedAmountIsPerUnitAndCappedAtUnitPrice() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(fixed(1L, 5.0)));
+
+        assertThat(evaluate(plan, line(1, 2000, 2))).isEqualTo(1000);
+        assertThat(evaluate(plan, line(1, 300, 2))).isEqualTo(600);
+    }
+
+    @Test
+    void buyXGetYDiscountsOnlyCompleteGroups() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(buyXGetY(1L, 2, 1)));
+
+        assertThat(evaluate(plan, line(1, 1000, 2))).isZero();
+        assertThat(evaluate(plan, line(1, 1000, 3))).isEqualTo(1000);
+        assertThat(evaluate(plan, line(1, 1000, 7))).isEqualTo(2000);
+    }
+
+    @Test
+    void globalRuleAppliesToEveryProduct() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(percentage(null, 10.0)));
+
+        assertThat(evaluate(plan, line(1, 1000, 1), line(42, 2000, 1))).isEqualTo(300);
+    }
+
+    @Test
+    void overlappingItemRulesUseTheSingleBestRulePerLine() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(
+                percentage(1L, 10.0),
+                percentage(1L, 20.0),
+                fixed(null, 1.5),
+                buyXGetY(2L, 1, 1)));
+        long[] lineDiscounts = new long[2];
+
+        long total = evaluateInto(plan, lineDiscounts, line(1, 1000, 1), line(2, 1000, 2));
+
+        // Ürün 1: %20 (200) > %10 (100) > 1,50 (150); ürün 2: 1 al 1 öde (1000) > 2 x 1,50 (300)
+        assertThat(lineDiscounts).containsExactly(200, 1000);
+        assertThat(total).isEqualTo(1200);
+    }
+
+    @Test
+    void lineDiscountNeverExceedsTheLineTotal() {
+        // Doğrulamadan geçmemiş bir kural bile satır tutarından fazla indirim veremez
+        PromotionPlan plan = PromotionPlan.compile(List.of(percentage(1L, 150.0)));
+        long[] lineDiscounts = new long[1];
+
+        assertThat(evaluateInto(plan, lineDiscounts, line(1, 500, 3))).isEqualTo(1500);
+        assertThat(lineDiscounts).containsExactly(1500);
+    }
+
+    @Test
+    void cartThresholdIsCheckedAgainstTheSubtotalAfterLineDiscounts() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(
+                percentage(1L, 10.0),
+                cartPercentage(100.0, 10.0)));
+
+        // 105,00 - 10,50 = 94,50 < 100,00
+        assertThat(evaluate(plan, line(1, 10500, 1))).isEqualTo(1050);
+        // 120,00 - 12,00 = 108,00; %10 = 10,80
+        assertThat(evaluate(plan, line(1, 12000, 1))).isEqualTo(1200 + 1080);
+    }
+
+    @Test
+    void bestQualifyingCartRuleWins() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(
+                cartPercentage(100.0, 5.0),
+                cartAmount(100.0, 20.0),
+                cartPercentage(500.0, 10.0)));
+
+        // 200,00: %5 = 10,00 < 20,00; 500 eşiği geçilmedi
+        assertThat(evaluate(plan, line(1, 20000, 1))).isEqualTo(2000);
+        // 600,00: %10 = 60,00 en iyisi
+        assertThat(evaluate(plan, line(1, 60000, 1))).isEqualTo(6000);
+    }
+
+    @Test
+    void cartAmountIsCappedAtTheRemainingSubtotal() {
+        PromotionPlan plan = PromotionPlan.compile(List.of(
+                fixed(null, 8.0),
+                cartAmount(0.0, 50.0)));
+
+        // 10,00 - 8,00 = 2,00 kalır; sepet indirimi bunu aşamaz
+        assertThat(evaluate(plan, line(1, 1000, 1))).isEqualTo(1000);
+    }
+
+    @Test
+    void rulesOutsideTheirWindowAreIgnored() {
+        Promotion expired = percentage(1L, 50.0);
+        expired.setEndsAt(NOW.minusSeconds(1));
+        Promotion upcoming = percentage(1L, 40.0);
+        upcoming.setStartsAt(NOW.plusSeconds(1));
+        Promotion expiredCart = cartAmount(0.0, 5.0);
+        expiredCart.setEndsAt(NOW.minusSeconds(60));
+        Promotion upcomingCart = cartAmount(0.0, 6.0);
+        upcomingCart.setStartsAt(NOW.plusSeconds(60));
+        PromotionPlan plan = PromotionPlan.compile(List.of(expired, upcoming, expiredCart, upcomingCart));
+
+        assertThat(evaluate(plan, line(1, 1000, 1))).isZero();
+    }
+
+    @Test
+    void windowStartIsInclusiveAndEndIsExclusive() {
+        Promotion starting = percentage(1L, 10.0);
+        starting.setStartsAt(NOW);
+        Promotion ending = percentage(2L, 10.0);
+        ending.setEndsAt(NOW);
+        PromotionPlan plan = PromotionPlan.compile(List.of(starting, ending));
+
+        assertThat(evaluate(plan, line(1, 1000, 1))).isEqualTo(100);
+        assertThat(evaluate(plan, line(2, 1000, 1))).isZero();
+    }
+
+    @Test
+    void inactiveRulesAreNotCompiled() {
+        Promotion inactive = percentage(1L, 10.0);
+        inactive.setActive(false);
+        PromotionPlan plan = PromotionPlan.compile(List.of(inactive, cartAmount(0.0, 1.0)));
+
+        assertThat(plan.size()).isEqualTo(1);
+        assertThat(evaluate(plan, line(1, 1000, 1))).isEqualTo(100);
+    }
+
+    private static long evaluate(PromotionPlan plan, long[]... lines) {
+        return evaluateInto(plan, null, lines);
+    }
+
+    private static long evaluateInto(PromotionPlan plan, long[] lineDiscounts, long[]... lines) {
+        long[] productIds = new long[lines.length];
+        long[] unitPrices = new long[lines.length];
+        int[] quantities = new int[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            productIds[i] = lines[i][0];
+            unitPrices[i] = lines[i][1];
+            quantities[i] = (int) lines[i][2];
+        }
+        return plan.evaluate(productIds, unitPrices, quantities, lines.length, lineDiscounts, NOW.toEpochMilli());
+    }
+
+    /** Ürün kimliği, kuruş cinsinden birim fiyat ve adet. */
+    private static long[] line(long productId, long unitPrice, int quantity) {
+        return new long[]{productId, unitPrice, quantity};
+    }
+
+    private static Promotion percentage(Long productId, double percent) {
+        return Promotion.builder().name("yüzde").type(PromotionType.PERCENTAGE)
+                .productId(productId).discountPercent(percent).build();
+    }
+
+    private static Promotion fixed(Long productId, double amount) {
+        return Promotion.builder().name("sabit").type(PromotionType.FIXED_AMOUNT)
+                .productId(productId).discountAmount(amount).build();
+    }
+
+    private static Promotion buyXGetY(Long productId, int buy, int free) {
+        return Promotion.builder().name("x al y öde").type(PromotionType.BUY_X_GET_Y)
+                .productId(productId).buyQuantity(buy).freeQuantity(free).build();
+    }
+
+    private static Promotion cartPercentage(double minCartTotal, double percent) {
+        return Promotion.builder().name("sepet yüzde").type(PromotionType.CART_THRESHOLD)
+                .minCartTotal(minCartTotal).discountPercent(percent).build();
+    }
+
+    private static Promotion cartAmount(double minCartTotal, double amount) {
+        return Promotion.builder().name("sepet sabit").type(PromotionType.CART_THRESHOLD)
+                .minCartTotal(minCartTotal).discountAmount(amount).build();
+    }
+}
@@ -0,0 +1,30 @@
+-- Sorgu planı testi için gerçekçi boyutta veri (yalnızca PostgreSQL).
+-- QueryPlanTest tarafından geçici veritabanına bir kez yüklenir.
+
+INSERT INTO products (name, description, price, image_url, stock)
+SELECT 'Ürün ' || g, 'Açıklama ' || g, round((random() * 5000)::numeric, 2), '/uploads/images/seed.jpg', (random() * 100)::int
+FROM generate_series(1, 20000) g;
+
+INSERT INTO users (first_name, last_name, email, password, role)
+SELECT 'Ad' || g, 'Soyad' || g, 'seed-' || g || '@example.com', 'x', 'USER'
+FROM generate_series(1, 100000) g;
+
+INSERT INTO carts (user_id, total_price, updated_at)
+SELECT u.id, 0, now() - (random() * interval '90 days')
+FROM users u
+WHERE u.email LIKE 'seed-%';
+
+-- Sepet başına ortalama 3 ürün; aynı ürün bir sepette iki kez yer almaz
+INSERT INTO cart_items (cart_id, product_id, quantity, unit_price, total_price)
+SELECT DISTINCT ON (s.cart_id, p.id) s.cart_id, p.id, 1, p.price, p.price
+FROM (SELECT c.id AS cart_id, (SELECT min(id) FROM products) + floor(random() * 20000)::bigint AS product_id
+      FROM carts c, generate_series(1, 5) slot
+      WHERE random() < 0.6) s
+JOIN products p ON p.id = s.product_id;
+
+UPDATE carts c
+SET total_price = s.total
+FROM (SELECT cart_id, sum(total_price) AS total FROM cart_items GROUP BY cart_id) s
+WHERE s.cart_id = c.id;
+
+ANALYZE;